@@ -0,0 +1,109 @@
+package benchmark;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import transportation.abstractclasses.Vehicle;
+import transportation.management.ConcurrentFleetManager;
+import transportation.vehicles.Car;
+
+// Multi-threaded throughput of a 64-stripe ConcurrentFleetManager against the same class with one
+// stripe, every call behind one global lock, for several read/write mixes. Both sides share the
+// data layout and the per-operation work, so the gap is the cost of the single lock.
+// (FleetManager is no baseline: its removeVehicle is O(N) and rebuilds the model set.)
+//
+// Usage: java benchmark.ConcurrentFleetBenchmark [threads] [fleetSize] [secondsPerRun]
+public class ConcurrentFleetBenchmark {
+    private static final int[] READ_PERCENTAGES = {50, 90, 99};
+    private static final int REPORT_EVERY = 1000;
+
+    private interface Registry {
+        void add(Vehicle v) throws Exception;
+        void remove(String id) throws Exception;
+        Vehicle get(String id);
+        String report();
+    }
+
+    private static final class GlobalLockRegistry implements Registry {
+        private final ConcurrentFleetManager manager = new ConcurrentFleetManager(1);
+
+        public synchronized void add(Vehicle v) throws Exception { manager.addVehicle(v); }
+        public synchronized void remove(String id) throws Exception { manager.removeVehicle(id); }
+        public synchronized Vehicle get(String id) { return manager.getVehicleById(id); }
+        public synchronized String report() { return manager.generateReport(); }
+    }
+
+    private static final class StripedRegistry implements Registry {
+        private final ConcurrentFleetManager manager = new ConcurrentFleetManager();
+
+        public void add(Vehicle v) throws Exception { manager.addVehicle(v); }
+        public void remove(String id) throws Exception { manager.removeVehicle(id); }
+        public Vehicle get(String id) { return manager.getVehicleById(id); }
+        public String report() { return manager.generateReport(); }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int fleetSize = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        System.out.printf("threads=%d fleetSize=%d seconds=%d%n", threads, fleetSize, seconds);
+        System.out.printf("%-12s %8s %16s%n", "registry", "reads%", "ops/sec");
+        for (int readPct : READ_PERCENTAGES) {
+            for (int pass = 0; pass < 2; pass++) {
+                boolean measured = pass == 1;
+                report("global-lock", readPct, measured, run(new GlobalLockRegistry(), threads, fleetSize, seconds, readPct));
+                report("striped", readPct, measured, run(new StripedRegistry(), threads, fleetSize, seconds, readPct));
+            }
+        }
+    }
+
+    private static void report(String name, int readPct, boolean measured, double opsPerSecond) {
+        if (measured) {
+            System.out.printf("%-12s %8d %,16.0f%n", name, readPct, opsPerSecond);
+        }
+    }
+
+    private static double run(Registry registry, int threads, int fleetSize, int seconds, int readPct) throws Exception {
+        for (int i = 0; i < fleetSize; i++) {
+            registry.add(new Car("C" + i, "Bench", 100, 4));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        AtomicLong ops = new AtomicLong();
+        AtomicLong nextId = new AtomicLong(fleetSize);
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long done = 0;
+                start.await();
+                while (System.nanoTime() < deadline) {
+                    for (int i = 0; i < 256; i++) {
+                        if (random.nextInt(100) < readPct) {
+                            if (done % REPORT_EVERY == 0) {
+                                registry.report();
+                            } else {
+                                registry.get("C" + random.nextInt(fleetSize));
+                            }
+                        } else {
+                            // Add a fresh vehicle and remove it again so the fleet size stays stable.
+                            String id = "N" + nextId.getAndIncrement();
+                            registry.add(new Car(id, "Bench", 100, 4));
+                            registry.remove(id);
+                        }
+                        done++;
+                    }
+                }
+                ops.addAndGet(done);
+                return null;
+            });
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        double elapsed = (System.nanoTime() - began) / 1e9;
+        return ops.get() / elapsed;
+    }
+}
@@ -0,0 +1,125 @@
+package benchmark;
+
+import java.util.*;
+import transportation.management.VehicleIdMap;
+
+// Single-threaded insert, lookup (hits and misses) and remove cost of VehicleIdMap against
+// HashMap<String, Integer> for the same ID-to-slot mapping, plus the heap each map retains per
+// entry. IDs are built up front, so both maps see strings with cached hash codes. HashMap's
+// figure includes the Integer box for each slot above the small-value cache.
+//
+// Usage: java [-Xmx6g] benchmark.VehicleIdMapBenchmark [size...]   (default 10000 100000 1000000;
+// 10000000 needs a few GB of heap)
+public class VehicleIdMapBenchmark {
+    private static volatile long blackhole;
+
+    private interface IdMap {
+        void put(String id, int slot);
+        int get(String id);
+        void remove(String id);
+    }
+
+    private static final class Open implements IdMap {
+        final VehicleIdMap map = new VehicleIdMap();
+
+        public void put(String id, int slot) { map.put(id, slot); }
+        public int get(String id) { return map.get(id); }
+        public void remove(String id) { map.remove(id); }
+    }
+
+    private static final class Boxed implements IdMap {
+        final Map<String, Integer> map = new HashMap<>();
+
+        public void put(String id, int slot) { map.put(id, slot); }
+        public int get(String id) {
+            Integer slot = map.get(id);
+            return slot == null ? -1 : slot;
+        }
+        public void remove(String id) { map.remove(id); }
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0
+            ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+            : new int[] {10_000, 100_000, 1_000_000};
+
+        System.out.printf("%-12s %10s %10s %10s %10s %10s %12s%n",
+            "map", "size", "insert", "hit", "miss", "remove", "bytes/entry");
+        for (int size : sizes) {
+            String[] ids = new String[size];
+            String[] missing = new String[size];
+            for (int i = 0; i < size; i++) {
+                ids[i] = "C" + i;
+                missing[i] = "X" + i;
+                ids[i].hashCode();
+                missing[i].hashCode();
+            }
+            String[] shuffled = ids.clone();
+            Collections.shuffle(Arrays.asList(shuffled), new Random(42));
+            Collections.shuffle(Arrays.asList(missing), new Random(43));
+
+            // First pass warms up the JIT; the best of the next three is reported.
+            double[] open = new double[5], boxed = new double[5];
+            Arrays.fill(open, Double.MAX_VALUE);
+            Arrays.fill(boxed, Double.MAX_VALUE);
+            for (int pass = 0; pass < 4; pass++) {
+                best(open, run(new Open(), ids, shuffled, missing), pass > 0);
+                best(boxed, run(new Boxed(), ids, shuffled, missing), pass > 0);
+            }
+            report("VehicleIdMap", size, open);
+            report("HashMap", size, boxed);
+        }
+    }
+
+    private static void best(double[] best, double[] sample, boolean measured) {
+        for (int i = 0; measured && i < best.length; i++) {
+            best[i] = Math.min(best[i], sample[i]);
+        }
+    }
+
+    private static void report(String name, int size, double[] r) {
+        System.out.printf("%-12s %,10d %8.1fns %8.1fns %8.1fns %8.1fns %12.1f%n", name, size, r[0], r[1], r[2], r[3], r[4]);
+    }
+
+    // Nanoseconds per insert, hit, miss and remove, then retained bytes per entry.
+    private static double[] run(IdMap map, String[] ids, String[] shuffled, String[] missing) {
+        int n = ids.length;
+        long heapBefore = usedHeap();
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            map.put(ids[i], i);
+        }
+        long t1 = System.nanoTime();
+        long heapAfter = usedHeap();
+
+        long sink = 0;
+        long t2 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            sink += map.get(shuffled[i]);
+        }
+        long t3 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            sink += map.get(missing[i]);
+        }
+        long t4 = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            map.remove(shuffled[i]);
+        }
+        long t5 = System.nanoTime();
+        blackhole = sink;
+
+        return new double[] {
+            (t1 - t0) / (double) n, (t3 - t2) / (double) n, (t4 - t3) / (double) n,
+            (t5 - t4) / (double) n, (heapAfter - heapBefore) / (double) n
+        };
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
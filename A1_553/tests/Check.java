@@ -0,0 +1,50 @@
+package tests;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+// Assertions for the plain-main tests in this package. A failed check throws AssertionError, so a
+// test's main exits non-zero on the first failure.
+final class Check {
+    private Check() {
+    }
+
+    static void that(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+
+    static void equal(Object expected, Object actual, String what) {
+        if (!Objects.equals(expected, actual)) {
+            throw new AssertionError(what + ": expected <" + shorten(expected) + "> but was <" + shorten(actual) + ">");
+        }
+    }
+
+    // Names the first key that differs instead of printing both maps.
+    static <K, V> void equalMaps(Map<K, V> expected, Map<K, V> actual, String what) {
+        Set<K> keys = new TreeSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+        for (K key : keys) {
+            equal(expected.get(key), actual.get(key), what + " [" + key + "]");
+        }
+    }
+
+    private static String shorten(Object value) {
+        String text = String.valueOf(value);
+        return text.length() <= 500 ? text : text.substring(0, 500) + "... (" + text.length() + " chars)";
+    }
+
+    static Path tempDir(String prefix) throws IOException {
+        return Files.createTempDirectory(prefix);
+    }
+
+    static void deleteTree(Path dir) throws IOException {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package tests;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.*;
+import transportation.abstractclasses.Vehicle;
+import transportation.events.EventSink;
+import transportation.events.EventSinks;
+import transportation.events.NoOpEventSink;
+import transportation.management.FleetManager;
+import transportation.persistence.Compression;
+import transportation.persistence.FleetFiles;
+import transportation.vehicles.*;
+
+// Every Compression through FleetFiles: byte streams of awkward sizes and shapes come back
+// unchanged and are detected as what they were written with, a fleet saved compressed loads back
+// row for row, and streams closed part-way leave no decompression thread behind.
+//
+// Usage: java tests.CompressionRoundTripTest
+public class CompressionRoundTripTest {
+    private static final int BLOCK = 1 << 16;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Check.tempDir("compression-test");
+        EventSink previous = EventSinks.get();
+        EventSinks.set(NoOpEventSink.INSTANCE);
+        try {
+            for (Compression compression : Compression.values()) {
+                bytes(dir, compression);
+                fleet(dir, compression);
+                earlyClose(dir, compression);
+            }
+            Check.that(waitForDecoders(), "Decompression threads still running after close");
+        } finally {
+            EventSinks.set(previous);
+            Check.deleteTree(dir);
+        }
+    }
+
+    private static void bytes(Path dir, Compression compression) throws IOException {
+        Random random = new Random(7);
+        Map<String, byte[]> inputs = new LinkedHashMap<>();
+        inputs.put("empty", new byte[0]);
+        inputs.put("one byte", new byte[] {'x'});
+        inputs.put("one block", text(random, BLOCK));
+        inputs.put("block plus one", text(random, BLOCK + 1));
+        inputs.put("incompressible", noise(random, 5 * BLOCK + 123));
+        inputs.put("zeros", zeros(3 * BLOCK + 17));
+        // A repeat further back than one block, beyond any back-reference the block codec keeps.
+        byte[] half = noise(random, BLOCK + 4096);
+        byte[] twice = Arrays.copyOf(half, 2 * half.length);
+        System.arraycopy(half, 0, twice, half.length, half.length);
+        inputs.put("distant repeat", twice);
+        inputs.put("csv", text(random, 2_000_000));
+
+        for (Map.Entry<String, byte[]> input : inputs.entrySet()) {
+            String file = dir.resolve("bytes." + compression).toString();
+            try (OutputStream out = FleetFiles.openOutputStream(file, compression)) {
+                out.write(input.getValue());
+            }
+            try (BufferedInputStream in = FleetFiles.openInputStream(file)) {
+                Check.that(Arrays.equals(input.getValue(), in.readAllBytes()),
+                    compression + " " + input.getKey() + ": bytes differ after round trip");
+            }
+            if (input.getValue().length > 0) {
+                try (BufferedInputStream raw = new BufferedInputStream(new FileInputStream(file))) {
+                    Check.equal(compression, FleetFiles.detect(raw), "Detected compression of " + input.getKey());
+                }
+            }
+        }
+    }
+
+    private static void fleet(Path dir, Compression compression) throws Exception {
+        FleetManager saved = new FleetManager();
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Vehicle v;
+            switch (i % 3) {
+                case 0: v = new Car("C" + i, "Sedan", 120 + i % 50, 4); break;
+                case 1: v = new Truck("T" + i, "Hauler", 90, 8); break;
+                default: v = new Bus("B" + i, "Coach", 100, 6); break;
+            }
+            v.setMileage(i * 13.7, i % 9000);
+            saved.addVehicle(v);
+            vehicles.add(v);
+        }
+        String file = dir.resolve("fleet." + compression).toString();
+        saved.saveToFile(file, compression);
+
+        FleetManager loaded = new FleetManager();
+        loaded.loadFromFile(file);
+        Check.equal(saved.size(), loaded.size(), compression + " fleet size");
+        for (Vehicle v : vehicles) {
+            Vehicle back = loaded.getVehicleById(v.getId());
+            Check.that(back != null, compression + ": " + v.getId() + " missing after load");
+            Check.equal(v.toString(), back.toString(), compression + " row");
+        }
+    }
+
+    private static void earlyClose(Path dir, Compression compression) throws IOException {
+        String file = dir.resolve("early." + compression).toString();
+        try (OutputStream out = FleetFiles.openOutputStream(file, compression)) {
+            out.write(text(new Random(3), 40 * BLOCK));
+        }
+        for (int i = 0; i < 20; i++) {
+            try (BufferedReader reader = FleetFiles.openReader(file)) {
+                Check.that(reader.readLine() != null, "First line of " + compression);
+            }
+        }
+    }
+
+    private static boolean waitForDecoders() throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            boolean running = Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(t -> t.getName().equals("fleet-gunzip") || t.getName().equals("fleet-unblock"));
+            if (!running) return true;
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    // CSV-looking ASCII, so NONE files are never mistaken for a compressed one.
+    private static byte[] text(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length + 64);
+        while (sb.length() < length) {
+            sb.append("Car,C").append(random.nextInt(1_000_000)).append(",Sedan,")
+              .append(random.nextInt(300)).append(".0,").append(random.nextDouble() * 1e5)
+              .append(",0.0,4,").append(random.nextInt(80)).append(",0,false\n");
+        }
+        return sb.substring(0, length).getBytes();
+    }
+
+    private static byte[] noise(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        bytes[0] = '#';
+        return bytes;
+    }
+
+    private static byte[] zeros(int length) {
+        byte[] bytes = new byte[length];
+        bytes[0] = '#';
+        return bytes;
+    }
+}
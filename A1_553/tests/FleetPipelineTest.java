@@ -0,0 +1,149 @@
+package tests;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import transportation.abstractclasses.Vehicle;
+import transportation.events.EventSink;
+import transportation.events.EventSinks;
+import transportation.events.NoOpEventSink;
+import transportation.interfaces.Maintainable;
+import transportation.management.FleetManager;
+import transportation.persistence.Compression;
+import transportation.persistence.FleetFiles;
+import transportation.persistence.FleetPipeline;
+import transportation.vehicles.*;
+
+// FleetPipeline end to end: CSV -> BINARY -> CSV under every compression gives back the rows
+// saveToFile wrote, in order; filters and transforms match the same steps done on a loaded
+// fleet; unparseable rows are counted; and a run whose filter throws leaves the previous output
+// in place.
+//
+// Usage: java tests.FleetPipelineTest
+public class FleetPipelineTest {
+    private static final int VEHICLES = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Check.tempDir("fleet-pipeline-test");
+        EventSink previous = EventSinks.get();
+        EventSinks.set(NoOpEventSink.INSTANCE);
+        try {
+            Path source = dir.resolve("fleet.csv");
+            List<Vehicle> vehicles = fleet();
+            FleetManager manager = new FleetManager();
+            for (Vehicle v : vehicles) {
+                manager.addVehicle(v);
+            }
+            manager.saveToFile(source.toString());
+            List<String> rows = rows(source);
+
+            for (Compression compression : Compression.values()) {
+                roundTrip(dir, source, rows, compression);
+            }
+            filtered(dir, source, vehicles);
+            rejected(dir, source, rows);
+            failedRun(dir, source);
+        } finally {
+            EventSinks.set(previous);
+            Check.deleteTree(dir);
+        }
+    }
+
+    private static List<Vehicle> fleet() throws Exception {
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < VEHICLES; i++) {
+            Vehicle v;
+            switch (i % 4) {
+                case 0: v = new Car("C" + i, "Sedan", 120, 4); break;
+                case 1: v = new Truck("T" + i, "Hauler", 90, 8); break;
+                case 2: v = new Bus("B" + i, "Coach", 100, 6); break;
+                default: v = new Airplane("A" + i, "Jet", 800, 11000); break;
+            }
+            v.setMileage(i * 7.5, (i * 37) % 15_000);
+            vehicles.add(v);
+        }
+        return vehicles;
+    }
+
+    private static void roundTrip(Path dir, Path source, List<String> rows, Compression compression) throws IOException {
+        Path binary = dir.resolve("fleet.flb." + compression);
+        Path back = dir.resolve("back.csv." + compression);
+        FleetPipeline.Result toBinary = new FleetPipeline(3).run(source.toString(), binary.toString(),
+            FleetPipeline.Format.BINARY, compression);
+        Check.equal((long) rows.size(), toBinary.getRowsWritten(), compression + " rows written to BINARY");
+
+        FleetPipeline.Result toCsv = new FleetPipeline(3).run(binary.toString(), back.toString(),
+            FleetPipeline.Format.CSV, compression);
+        Check.equal((long) rows.size(), toCsv.getRowsRead(), compression + " rows read from BINARY");
+        Check.equal(0L, toCsv.getRowsRejected(), compression + " rows rejected");
+        Check.equal(rows, rows(back), compression + " rows after CSV -> BINARY -> CSV");
+    }
+
+    private static void filtered(Path dir, Path source, List<Vehicle> vehicles) throws Exception {
+        Path output = dir.resolve("filtered.csv");
+        new FleetPipeline(2)
+            .ofType("Car", "Bus")
+            .mileageBetween(10_000, 90_000)
+            .maintenanceDue()
+            .transform(v -> ((Maintainable) v).performMaintenance())
+            .run(source.toString(), output.toString(), FleetPipeline.Format.CSV, Compression.GZIP);
+
+        List<String> expected = new ArrayList<>();
+        for (Vehicle v : vehicles) {
+            boolean type = v instanceof Car || v instanceof Bus;
+            double mileage = v.getTotalMileage();
+            if (type && mileage >= 10_000 && mileage <= 90_000 && v.isMaintenanceDue()) {
+                Vehicle copy = FleetManager.createVehicleFromString(v.toString());
+                ((Maintainable) copy).performMaintenance();
+                expected.add(copy.toString());
+            }
+        }
+        Check.that(!expected.isEmpty(), "Filter test selects nothing");
+        Check.equal(expected, rows(output), "Filtered rows");
+    }
+
+    private static void rejected(Path dir, Path source, List<String> rows) throws IOException {
+        Path damaged = dir.resolve("damaged.csv");
+        List<String> lines = new ArrayList<>(Files.readAllLines(source));
+        lines.add(5, "Car,BAD1,Sedan,fast,0.0,0.0,4,0.0,0,false");
+        lines.add(9, "Car,BAD2,Sedan,120.0,0.0,0.0,four,0.0,0,false");
+        Files.write(damaged, lines);
+
+        Path output = dir.resolve("undamaged.csv");
+        FleetPipeline.Result result = new FleetPipeline(2).run(damaged.toString(), output.toString(),
+            FleetPipeline.Format.CSV, Compression.NONE);
+        Check.equal(2L, result.getRowsRejected(), "Rejected rows");
+        Check.equal(rows, rows(output), "Rows around the rejected ones");
+    }
+
+    private static void failedRun(Path dir, Path source) throws IOException {
+        Path output = dir.resolve("kept.csv");
+        Files.write(output, Collections.singletonList("previous output"));
+        try {
+            new FleetPipeline(2)
+                .where(v -> {
+                    if (v.getId().equals("T9001")) throw new IllegalStateException("filter failed");
+                    return true;
+                })
+                .run(source.toString(), output.toString(), FleetPipeline.Format.CSV, Compression.NONE);
+            throw new AssertionError("Run with a failing filter did not throw");
+        } catch (IOException expected) {
+            Check.that(expected.getCause() instanceof IllegalStateException, "Cause of the failed run: " + expected);
+        }
+        Check.equal(Collections.singletonList("previous output"), Files.readAllLines(output), "Output after a failed run");
+        Check.that(!Files.exists(dir.resolve("kept.csv.tmp")), "Temporary output left behind");
+    }
+
+    // Data rows of a CSV fleet file, header skipped.
+    private static List<String> rows(Path file) throws IOException {
+        List<String> rows = new ArrayList<>();
+        try (BufferedReader reader = FleetFiles.openReader(file.toString())) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) rows.add(line);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,216 @@
+package tests;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+import transportation.abstractclasses.Vehicle;
+import transportation.events.EventSink;
+import transportation.events.EventSinks;
+import transportation.events.NoOpEventSink;
+import transportation.interfaces.FuelConsumable;
+import transportation.management.FleetManager;
+import transportation.persistence.FleetWal;
+import transportation.vehicles.*;
+
+// FleetWal recovery: a fleet driven through random adds, removes, refuels, batch loads, journeys
+// and maintenance is rebuilt exactly from its log directory - after a clean close, across segment
+// rotation and compaction, without a close at all, and with a torn or corrupt last record, which
+// recovery drops while keeping everything before it.
+//
+// Usage: java tests.FleetWalRecoveryTest [seed]
+public class FleetWalRecoveryTest {
+    private static final long SMALL_SEGMENT = 8 << 10;
+    private static final long COMPACT_OFTEN = 32 << 10;
+    private static final long NEVER = Long.MAX_VALUE;
+
+    private static int nextId;
+
+    public static void main(String[] args) throws Exception {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 11;
+        Random random = new Random(seed);
+        Path dir = Check.tempDir("fleet-wal-test");
+        EventSink previous = EventSinks.get();
+        EventSinks.set(NoOpEventSink.INSTANCE);
+        try {
+            cleanClose(dir.resolve("clean"), random);
+            compaction(dir.resolve("compact"), random);
+            noClose(dir.resolve("crash"), random);
+            tornTail(dir.resolve("torn"), random);
+        } finally {
+            EventSinks.set(previous);
+            Check.deleteTree(dir);
+        }
+    }
+
+    private static void cleanClose(Path dir, Random random) throws Exception {
+        FleetManager manager = new FleetManager();
+        FleetWal wal = FleetWal.open(dir, manager, false, 0, NEVER, NEVER);
+        mutate(manager, random, 3000);
+        wal.close();
+        manager.close();
+        Check.that(!manager.getFleet().isEmpty(), "Workload left an empty fleet");
+        Check.equalMaps(state(manager), recover(dir), "Fleet recovered after close");
+    }
+
+    private static void compaction(Path dir, Random random) throws Exception {
+        FleetManager manager = new FleetManager();
+        FleetWal wal = FleetWal.open(dir, manager, false, 0, SMALL_SEGMENT, COMPACT_OFTEN);
+        mutate(manager, random, 2500);
+        wal.checkpoint();
+        mutate(manager, random, 2500);
+        wal.close();
+        manager.close();
+        Check.that(count(dir, "snapshot-") > 0, "No snapshot after compaction");
+        Check.equalMaps(state(manager), recover(dir), "Fleet recovered after compaction");
+
+        // A second generation on top of the recovered fleet.
+        FleetManager reopened = new FleetManager();
+        wal = FleetWal.open(dir, reopened, false, 0, SMALL_SEGMENT, COMPACT_OFTEN);
+        mutate(reopened, random, 2000);
+        wal.close();
+        reopened.close();
+        Check.equalMaps(state(reopened), recover(dir), "Fleet recovered after a second run");
+    }
+
+    // With waitForSync every mutation is on disk when it returns, so the log is complete even
+    // though the writer never closes it.
+    private static void noClose(Path dir, Random random) throws Exception {
+        FleetManager manager = new FleetManager();
+        FleetWal wal = FleetWal.open(dir, manager, true, 0, NEVER, NEVER);
+        mutate(manager, random, 300);
+        Check.equalMaps(state(manager), recover(dir), "Fleet recovered from a log still open");
+        wal.close();
+        manager.close();
+    }
+
+    private static void tornTail(Path dir, Random random) throws Exception {
+        FleetManager manager = new FleetManager();
+        FleetWal wal = FleetWal.open(dir, manager, false, 0, NEVER, NEVER);
+        mutate(manager, random, 500);
+        wal.close();
+        manager.close();
+        Map<String, String> before = state(manager);
+
+        // Each open starts a new segment, so the last record below is alone in the newest one.
+        appendOne(dir, "TORN");
+        Path newest = newestSegment(dir);
+        Check.that(Files.size(newest) > 3, "Last record missing from " + newest);
+        try (FileChannel channel = FileChannel.open(newest, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        Check.equalMaps(before, recover(dir), "Fleet recovered after a torn last record");
+
+        appendOne(dir, "CORRUPT");
+        newest = newestSegment(dir);
+        byte[] bytes = Files.readAllBytes(newest);
+        bytes[bytes.length - 2] ^= 0x20;
+        Files.write(newest, bytes);
+        Check.equalMaps(before, recover(dir), "Fleet recovered after a corrupt last record");
+
+        // Logging carries on after the damaged segment.
+        FleetManager resumed = new FleetManager();
+        wal = FleetWal.open(dir, resumed, false, 0, NEVER, NEVER);
+        mutate(resumed, random, 200);
+        wal.close();
+        resumed.close();
+        Check.equalMaps(state(resumed), recover(dir), "Fleet recovered after logging resumed");
+    }
+
+    private static void appendOne(Path dir, String id) throws Exception {
+        FleetManager manager = new FleetManager();
+        FleetWal wal = FleetWal.open(dir, manager, false, 0, NEVER, NEVER);
+        manager.addVehicle(new Car(id, "Sedan", 120, 4));
+        wal.close();
+        manager.close();
+    }
+
+    private static Map<String, String> recover(Path dir) throws IOException {
+        FleetManager manager = new FleetManager();
+        FleetWal wal = FleetWal.open(dir, manager, false, 0, NEVER, NEVER);
+        Map<String, String> state = state(manager);
+        wal.close();
+        manager.close();
+        return state;
+    }
+
+    private static Map<String, String> state(FleetManager manager) {
+        Map<String, String> state = new TreeMap<>();
+        for (Vehicle v : manager.getFleet()) {
+            state.put(v.getId(), v.toString());
+        }
+        return state;
+    }
+
+    private static void mutate(FleetManager manager, Random random, int operations) throws Exception {
+        for (int op = 0; op < operations; op++) {
+            List<Vehicle> fleet = manager.getFleet();
+            int choice = fleet.isEmpty() ? 0 : random.nextInt(100);
+            if (choice < 25) {
+                manager.addVehicle(newVehicle(random));
+            } else if (choice < 45) {
+                manager.removeVehicle(fleet.get(random.nextInt(fleet.size())).getId());
+            } else if (choice < 60) {
+                Vehicle v = fleet.get(random.nextInt(fleet.size()));
+                if (v instanceof FuelConsumable) ((FuelConsumable) v).tryRefuel(1 + random.nextInt(200));
+            } else if (choice < 70) {
+                String[] ids = randomIds(fleet, random, 10);
+                double[] weights = new double[ids.length];
+                for (int i = 0; i < ids.length; i++) weights[i] = 1 + random.nextInt(300);
+                manager.loadCargo(ids, weights, FleetManager.BatchMode.BEST_EFFORT);
+            } else if (choice < 80) {
+                String[] ids = randomIds(fleet, random, 10);
+                int[] counts = new int[ids.length];
+                for (int i = 0; i < ids.length; i++) counts[i] = 1 + random.nextInt(4);
+                manager.boardPassengers(ids, counts, FleetManager.BatchMode.ALL_OR_NOTHING);
+            } else if (choice < 85) {
+                manager.executeJourneys(5 + random.nextInt(500));
+            } else if (choice < 90) {
+                manager.maintainAll();
+            } else {
+                List<Vehicle> batch = new ArrayList<>();
+                for (int i = 0; i < 5; i++) batch.add(newVehicle(random));
+                manager.addVehicles(batch);
+            }
+        }
+    }
+
+    // Sailing ships only: a motor ship's initial 100 fuel is added to its saved level on reload.
+    private static Vehicle newVehicle(Random random) throws Exception {
+        String id = "W" + nextId++;
+        Vehicle v;
+        switch (random.nextInt(5)) {
+            case 0: v = new Car(id, "Sedan", 120, 4); break;
+            case 1: v = new Truck(id, "Hauler", 90, 8); break;
+            case 2: v = new Bus(id, "Coach", 100, 6); break;
+            case 3: v = new Airplane(id, "Jet", 800, 11000); break;
+            default: v = new CargoShip(id, "Freighter", 40, true); break;
+        }
+        if (v instanceof FuelConsumable) ((FuelConsumable) v).tryRefuel(50 + random.nextInt(500));
+        v.setMileage(random.nextInt(20_000), random.nextInt(12_000));
+        return v;
+    }
+
+    private static String[] randomIds(List<Vehicle> fleet, Random random, int count) {
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = fleet.get(random.nextInt(fleet.size())).getId();
+        }
+        return ids;
+    }
+
+    private static Path newestSegment(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().startsWith("wal-"))
+                .max(Comparator.comparing(p -> p.getFileName().toString()))
+                .orElseThrow(() -> new AssertionError("No log segment in " + dir));
+        }
+    }
+
+    private static long count(Path dir, String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package tests;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import transportation.abstractclasses.*;
+import transportation.events.EventSink;
+import transportation.events.EventSinks;
+import transportation.events.NoOpEventSink;
+import transportation.management.FleetManager;
+import transportation.persistence.Compression;
+import transportation.persistence.LazyFleetFile;
+import transportation.vehicles.*;
+
+// LazyFleetFile against the file saveToFile wrote: every row is found by ID and by type, an index
+// written to <file>.idx is reused on the next open, and a stale or damaged index is ignored in
+// favour of a rescan.
+//
+// Usage: java tests.LazyFleetFileTest
+public class LazyFleetFileTest {
+    private static final int VEHICLES = 3000;
+    // Far below the fleet size, so lookups keep evicting.
+    private static final int CACHE_SIZE = 16;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Check.tempDir("lazy-fleet-test");
+        EventSink previous = EventSinks.get();
+        EventSinks.set(NoOpEventSink.INSTANCE);
+        try {
+            Path file = dir.resolve("fleet.csv");
+            Path sidecar = dir.resolve("fleet.csv.idx");
+            List<Vehicle> vehicles = fleet(VEHICLES);
+            save(vehicles, file, Compression.NONE);
+
+            try (LazyFleetFile lazy = LazyFleetFile.open(file.toString(), CACHE_SIZE, false)) {
+                verify(lazy, vehicles, file);
+            }
+            Check.that(!Files.exists(sidecar), "Index written although useSidecar was false");
+
+            try (LazyFleetFile lazy = LazyFleetFile.open(file.toString(), CACHE_SIZE, true)) {
+                verify(lazy, vehicles, file);
+            }
+            Check.that(Files.exists(sidecar), "No index written after a scan");
+
+            // A current index is read, not rewritten.
+            FileTime old = FileTime.fromMillis(0);
+            Files.setLastModifiedTime(sidecar, old);
+            try (LazyFleetFile lazy = LazyFleetFile.open(file.toString(), CACHE_SIZE, true)) {
+                verify(lazy, vehicles, file);
+            }
+            Check.equal(old, Files.getLastModifiedTime(sidecar), "Index modification time after reuse");
+
+            // The file changed under the index: it is rescanned and the index replaced.
+            vehicles.add(new Car("LATE", "Sedan", 150, 4));
+            save(vehicles, file, Compression.NONE);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+            try (LazyFleetFile lazy = LazyFleetFile.open(file.toString(), CACHE_SIZE, true)) {
+                verify(lazy, vehicles, file);
+            }
+            Check.that(!old.equals(Files.getLastModifiedTime(sidecar)), "Stale index was not replaced");
+
+            // A truncated index is treated as missing.
+            byte[] index = Files.readAllBytes(sidecar);
+            Files.write(sidecar, Arrays.copyOf(index, index.length / 2));
+            try (LazyFleetFile lazy = LazyFleetFile.open(file.toString(), CACHE_SIZE, true)) {
+                verify(lazy, vehicles, file);
+            }
+
+            Path gzip = dir.resolve("fleet.csv.gz");
+            save(vehicles, gzip, Compression.GZIP);
+            try {
+                LazyFleetFile.open(gzip.toString()).close();
+                throw new AssertionError("Opened a compressed file lazily");
+            } catch (IOException expected) {
+                // Rows are read by offset, so only plain files qualify.
+            }
+        } finally {
+            EventSinks.set(previous);
+            Check.deleteTree(dir);
+        }
+    }
+
+    private static List<Vehicle> fleet(int count) throws Exception {
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Vehicle v;
+            switch (i % 5) {
+                case 0: v = new Car("C" + i, "Sedan", 120, 4); break;
+                case 1: v = new Truck("T" + i, "Hauler", 90, 8); break;
+                case 2: v = new Bus("B" + i, "Coach", 100, 6); break;
+                case 3: v = new Airplane("A" + i, "Jet", 800, 11000); break;
+                default: v = new CargoShip("S" + i, "Freighter", 40, true); break;
+            }
+            v.setMileage(i * 31.5, i % 7000);
+            vehicles.add(v);
+        }
+        return vehicles;
+    }
+
+    private static void save(List<Vehicle> vehicles, Path file, Compression compression) throws Exception {
+        FleetManager manager = new FleetManager();
+        for (Vehicle v : vehicles) {
+            manager.addVehicle(v);
+        }
+        manager.saveToFile(file.toString(), compression);
+    }
+
+    private static void verify(LazyFleetFile lazy, List<Vehicle> vehicles, Path file) throws IOException {
+        Check.equal(vehicles.size(), lazy.size(), "Row count");
+
+        List<String> lines = Files.readAllLines(file);
+        for (int row = 0; row < lazy.size(); row++) {
+            Check.equal(lines.get(row + 1), lazy.readLine(row), "Line of row " + row);
+        }
+        for (Vehicle v : vehicles) {
+            Vehicle found = lazy.getVehicleById(v.getId());
+            Check.that(found != null, v.getId() + " not found");
+            Check.equal(v.toString(), found.toString(), "Vehicle " + v.getId());
+        }
+        Check.equal(null, lazy.getVehicleById("NO-SUCH-ID"), "Missing ID");
+        Check.that(lazy.getCachedCount() <= CACHE_SIZE, "Cache grew past its bound");
+
+        Class<?>[] types = {Car.class, Truck.class, Bus.class, Airplane.class, CargoShip.class,
+            LandVehicle.class, Vehicle.class};
+        for (Class<?> type : types) {
+            int expected = 0;
+            for (Vehicle v : vehicles) {
+                if (type.isInstance(v)) expected++;
+            }
+            Check.equal(expected, lazy.countByType(type), "Count of " + type.getSimpleName());
+            int[] rows = lazy.rowsOfType(type);
+            Check.equal(expected, rows.length, "Rows of " + type.getSimpleName());
+            for (int row : rows) {
+                Check.that(type.isInstance(lazy.getVehicle(row)), "Row " + row + " is not a " + type.getSimpleName());
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package tests;
+
+// Runs every test in this package; exits non-zero on the first failure.
+//
+// Usage: java tests.RunAll
+public class RunAll {
+    public static void main(String[] args) throws Exception {
+        run("VehicleRowParserTest", () -> VehicleRowParserTest.main(args));
+        run("CompressionRoundTripTest", () -> CompressionRoundTripTest.main(args));
+        run("LazyFleetFileTest", () -> LazyFleetFileTest.main(args));
+        run("FleetPipelineTest", () -> FleetPipelineTest.main(args));
+        run("FleetWalRecoveryTest", () -> FleetWalRecoveryTest.main(args));
+        System.out.println("All tests passed");
+    }
+
+    private interface Test {
+        void run() throws Exception;
+    }
+
+    private static void run(String name, Test test) throws Exception {
+        long start = System.nanoTime();
+        test.run();
+        System.out.printf("%-28s ok (%d ms)%n", name, (System.nanoTime() - start) / 1_000_000);
+    }
+}
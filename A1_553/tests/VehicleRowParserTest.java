@@ -0,0 +1,166 @@
+package tests;
+
+import java.util.Random;
+import transportation.abstractclasses.Vehicle;
+import transportation.events.EventSink;
+import transportation.events.EventSinks;
+import transportation.events.FleetEvent;
+import transportation.events.NoOpEventSink;
+import transportation.interfaces.FuelConsumable;
+import transportation.interfaces.Maintainable;
+import transportation.management.FleetManager;
+import transportation.management.VehicleRowParser;
+import transportation.vehicles.*;
+
+// VehicleRowParser against the saveToFile format: random vehicles of every type survive
+// toString -> parse -> toString unchanged, numbers come back bit-for-bit as Double.parseDouble
+// reads them, and malformed rows are reported the way createVehicleFromString always has.
+//
+// Usage: java tests.VehicleRowParserTest [seed]
+public class VehicleRowParserTest {
+    private static final int ROUND_TRIPS = 20_000;
+    private static final int NUMBERS = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 42;
+        Random random = new Random(seed);
+        VehicleRowParser parser = new VehicleRowParser();
+        // Malformed rows below publish PARSE_FAILED/CREATE_FAILED; keep them off the console.
+        EventSink previous = EventSinks.get();
+        EventSinks.set(NoOpEventSink.INSTANCE);
+        try {
+            roundTrips(parser, random);
+            numbers(parser, random);
+            malformedRows(parser);
+        } finally {
+            EventSinks.set(previous);
+        }
+    }
+
+    private static void roundTrips(VehicleRowParser parser, Random random) throws Exception {
+        for (int i = 0; i < ROUND_TRIPS; i++) {
+            Vehicle original = randomVehicle(random, "V" + i);
+            String row = original.toString();
+            Vehicle parsed = parser.parse(row);
+            Check.that(parsed != null, "Not parsed: " + row + " (" + parser.getErrorMessage() + ")");
+            Check.equal(original.getClass(), parsed.getClass(), "Type of " + row);
+            Check.equal(row, parsed.toString(), "Round trip");
+        }
+    }
+
+    private static Vehicle randomVehicle(Random random, String id) throws Exception {
+        double speed = 10 + random.nextInt(900);
+        Vehicle v;
+        switch (random.nextInt(5)) {
+            case 0: {
+                Car car = new Car(id, "Sedan", speed, 4);
+                if (random.nextBoolean()) car.refuel(randomAmount(random, 80));
+                if (random.nextBoolean()) car.boardPassengers(1 + random.nextInt(car.getPassengerCapacity()));
+                v = car;
+                break;
+            }
+            case 1: {
+                Truck truck = new Truck(id, "Hauler", speed, 6 + 2 * random.nextInt(6));
+                if (random.nextBoolean()) truck.refuel(randomAmount(random, 400));
+                if (random.nextBoolean()) truck.loadCargo(randomAmount(random, truck.getCargoCapacity()));
+                v = truck;
+                break;
+            }
+            case 2: {
+                Bus bus = new Bus(id, "Coach", speed, 6);
+                if (random.nextBoolean()) bus.refuel(randomAmount(random, 300));
+                if (random.nextBoolean()) bus.loadCargo(randomAmount(random, bus.getCargoCapacity()));
+                if (random.nextBoolean()) bus.boardPassengers(1 + random.nextInt(bus.getPassengerCapacity()));
+                v = bus;
+                break;
+            }
+            case 3: {
+                Airplane plane = new Airplane(id, "Jet", speed, 1000 + random.nextInt(12000));
+                if (random.nextBoolean()) plane.refuel(randomAmount(random, 20000));
+                if (random.nextBoolean()) plane.loadCargo(randomAmount(random, plane.getCargoCapacity()));
+                if (random.nextBoolean()) plane.boardPassengers(1 + random.nextInt(plane.getPassengerCapacity()));
+                v = plane;
+                break;
+            }
+            default: {
+                // Motor ships start with 100 fuel and the loader refuels the saved level on top of
+                // that, so only sailing ships round-trip exactly.
+                CargoShip ship = new CargoShip(id, "Freighter", speed, true);
+                if (random.nextBoolean()) ship.loadCargo(randomAmount(random, ship.getCargoCapacity()));
+                v = ship;
+                break;
+            }
+        }
+        double total = random.nextInt(100) == 0 ? 0 : random.nextDouble() * 1e6;
+        v.setMileage(total, random.nextDouble() * Math.min(total, 20_000));
+        if (random.nextInt(4) == 0) ((Maintainable) v).scheduleMaintenance();
+        return v;
+    }
+
+    // Full-precision amounts, so the fuel and cargo columns carry Double.toString's longest forms.
+    private static double randomAmount(Random random, double max) {
+        return Math.max(Double.MIN_NORMAL, random.nextDouble() * max);
+    }
+
+    private static void numbers(VehicleRowParser parser, Random random) {
+        String[] fixed = {
+            "1", "0.1", "007.50", "1e5", "1E-5", "1.2E7", "3.0", "123456789012345678901234567890",
+            "0.30000000000000004", "4.9E-324", "1.7976931348623157E308", "9007199254740993", " 2.5",
+            "2.5 ", "+4", "1.", ".5", "12345.678901234567890123", "1e22", "1e23", "8.41E21"
+        };
+        for (String text : fixed) {
+            checkNumber(parser, text);
+        }
+        for (int i = 0; i < NUMBERS; i++) {
+            double d;
+            switch (i % 4) {
+                case 0: d = random.nextDouble() * 1000; break;
+                case 1: d = random.nextInt(1_000_000) / 10.0; break;
+                case 2: d = Math.abs(Double.longBitsToDouble(random.nextLong())); break;
+                default: d = random.nextDouble() * Math.pow(10, random.nextInt(40) - 20); break;
+            }
+            if (d > 0 && Double.isFinite(d)) checkNumber(parser, Double.toString(d));
+        }
+    }
+
+    // The fuel column is only refuelled when positive, so every text used here parses to > 0.
+    private static void checkNumber(VehicleRowParser parser, String text) {
+        String row = "Car,N1,Sedan,120.0,0.0,0.0,4," + text + ",0,false";
+        Vehicle v = parser.parse(row);
+        Check.that(v != null, "Not parsed: " + row + " (" + parser.getErrorMessage() + ")");
+        double expected = Double.parseDouble(text);
+        double actual = ((FuelConsumable) v).getFuelLevel();
+        Check.that(Double.doubleToLongBits(expected) == Double.doubleToLongBits(actual),
+            "Fuel \"" + text + "\": expected " + expected + " but was " + actual);
+    }
+
+    private static void malformedRows(VehicleRowParser parser) throws Exception {
+        expectNull(parser, "Car,C1,Sedan,120.0,0.0", null);
+        expectNull(parser, "Hovercraft,H1,Model,80.0,0.0,0.0,4,10.0,0,false", null);
+        expectNull(parser, "Car,C1,Sedan,fast,0.0,0.0,4,10.0,0,false", FleetEvent.Type.PARSE_FAILED);
+        expectNull(parser, "Car,C1,Sedan,120.0,0.0,0.0,four,10.0,0,false", FleetEvent.Type.CREATE_FAILED);
+        expectNull(parser, "Car,C1,Sedan,120.0,0.0,0.0,4,10.0,0", FleetEvent.Type.CREATE_FAILED);
+        expectNull(parser, "Car,C1,Sedan,120.0,0.0,0.0,4,10.0,9,false", FleetEvent.Type.CREATE_FAILED);
+        expectNull(parser, "Car,,Sedan,120.0,0.0,0.0,4,10.0,0,false", FleetEvent.Type.CREATE_FAILED);
+
+        // An error does not stick to the next row.
+        Check.that(parser.parse("Car,C1,Sedan,120.0,0.0,0.0,4,10.0,0,false") != null, "Good row after bad");
+        Check.equal(null, parser.getError(), "Error after good row");
+
+        // createVehicleFromString keeps throwing NumberFormatException for a bad base field.
+        try {
+            FleetManager.createVehicleFromString("Car,C1,Sedan,fast,0.0,0.0,4,10.0,0,false");
+            throw new AssertionError("Expected NumberFormatException");
+        } catch (NumberFormatException expected) {
+            // The historical contract.
+        }
+    }
+
+    private static void expectNull(VehicleRowParser parser, String row, FleetEvent.Type error) {
+        Check.equal(null, parser.parse(row), "Vehicle from \"" + row + "\"");
+        Check.equal(error, parser.getError(), "Error for \"" + row + "\"");
+        if (error != null) {
+            Check.that(parser.getErrorMessage() != null, "No message for \"" + row + "\"");
+        }
+    }
+}
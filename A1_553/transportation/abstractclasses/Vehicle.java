@@ -1,70 +1,190 @@
-package transportation.abstractclasses;
-
-import transportation.exceptions.InvalidOperationException;
-
-public abstract class Vehicle implements Comparable<Vehicle> {
-    private String id, model;
-    private double maxSpeed;
-    protected double totalMileage;
-    protected double mileageSinceMaintenance;
-
-    public Vehicle(String id, String model, double maxSpeed) throws InvalidOperationException {
-        if (id == null || id.isBlank()) {
-            throw new InvalidOperationException("ID cannot be empty");
-        }
-        this.id = id;
-        this.model = model;
-        this.maxSpeed = maxSpeed;
-        this.totalMileage = 0;
-        this.mileageSinceMaintenance = 0;
-    }
-
-    public String getId() { return id; }
-    public String getModel() { return model; }
-    public double getMaxSpeed() { return maxSpeed; }
-
-    public double getTotalMileage() { return totalMileage; }
-    public double getMileageSinceMaintenance() { return mileageSinceMaintenance; }
-
-    protected void addMileage(double distance) {
-        totalMileage += distance;
-        mileageSinceMaintenance += distance;
-    }
-
-    public void resetMileageSinceMaintenance() {
-        mileageSinceMaintenance = 0;
-    }
-
-    public void setMileage(double total, double sinceMaintenance) {
-        totalMileage = total;
-        mileageSinceMaintenance = sinceMaintenance;
-    }
-
-    public void displayInfo() {
-        System.out.println(
-            "ID: " + id +
-            ", Model: " + model +
-            ", Max Speed: " + maxSpeed + " km/h" +
-            ", Total Mileage: " + totalMileage + " km" +
-            ", Mileage Since Maintenance: " + mileageSinceMaintenance + " km"
-        );
-    }
-
-    public abstract void move(double distance) throws Exception;
-    public abstract double calculateFuelEfficiency();
-    public abstract double estimateJourneyTime(double distance);
-
-    @Override
-    public int compareTo(Vehicle other) {
-        return Double.compare(
-            this.calculateFuelEfficiency(),
-            other.calculateFuelEfficiency()
-        );
-    }
-
-    @Override
-    public String toString() {
-        return String.format("%s,%s,%.1f,%.1f,%.1f",
-            id, model, maxSpeed, totalMileage, mileageSinceMaintenance);
-    }
-}
+package transportation.abstractclasses;
+
+import transportation.exceptions.*;
+import transportation.interfaces.FuelConsumable;
+import transportation.interfaces.Maintainable;
+import transportation.interfaces.VehicleObserver;
+import transportation.utility.CompactId;
+import transportation.utility.ModelDictionary;
+import transportation.utility.OperationStatus;
+
+public abstract class Vehicle implements Comparable<Vehicle> {
+    public enum Change {
+        MILEAGE,
+        MAINTENANCE,
+        FUEL,
+        CARGO,
+        PASSENGERS
+    }
+
+    private String id, model;
+    // With compact IDs on, an ID of the usual prefix+number shape is held here and id stays null.
+    private long packedId = CompactId.NONE;
+    private double maxSpeed;
+    protected double totalMileage;
+    protected double mileageSinceMaintenance;
+    private volatile VehicleObserver observer;
+
+    // Derived values, computed on first use. Efficiency and journey time only depend on fields
+    // fixed at construction; the maintenance flag is dropped on every MILEAGE or MAINTENANCE change.
+    private double cachedEfficiency = Double.NaN;
+    private double cachedHoursPerKm = Double.NaN;
+    private byte cachedMaintenanceDue = UNKNOWN;
+    private static final byte UNKNOWN = -1;
+
+    private static volatile boolean compactIds;
+
+    public Vehicle(String id, String model, double maxSpeed) throws InvalidOperationException {
+        if (id == null || id.isBlank()) {
+            throw new InvalidOperationException("ID cannot be empty");
+        }
+        if (compactIds) {
+            packedId = CompactId.pack(id);
+        }
+        this.id = packedId == CompactId.NONE ? id : null;
+        this.model = ModelDictionary.intern(model);
+        this.maxSpeed = maxSpeed;
+        this.totalMileage = 0;
+        this.mileageSinceMaintenance = 0;
+    }
+
+    // Vehicles built afterwards hold their IDs as packed longs where the shape allows, which saves
+    // the ID string per vehicle at the cost of building one on each getId call.
+    public static void setCompactIds(boolean enabled) {
+        compactIds = enabled;
+    }
+
+    public String getId() { return id != null ? id : CompactId.unpack(packedId); }
+    public String getModel() { return model; }
+    public double getMaxSpeed() { return maxSpeed; }
+
+    public double getTotalMileage() { return totalMileage; }
+    public double getMileageSinceMaintenance() { return mileageSinceMaintenance; }
+
+    protected void addMileage(double distance) {
+        totalMileage += distance;
+        mileageSinceMaintenance += distance;
+        notifyObserver(Change.MILEAGE);
+    }
+
+    public void resetMileageSinceMaintenance() {
+        mileageSinceMaintenance = 0;
+        notifyObserver(Change.MILEAGE);
+    }
+
+    public void setMileage(double total, double sinceMaintenance) {
+        totalMileage = total;
+        mileageSinceMaintenance = sinceMaintenance;
+        notifyObserver(Change.MILEAGE);
+    }
+
+    // The owning fleet registers itself here so it can keep its indexes in step with the vehicle.
+    public void setObserver(VehicleObserver observer) {
+        this.observer = observer;
+    }
+
+    public VehicleObserver getObserver() {
+        return observer;
+    }
+
+    protected void notifyObserver(Change change) {
+        if (change == Change.MILEAGE || change == Change.MAINTENANCE) {
+            cachedMaintenanceDue = UNKNOWN;
+        }
+        VehicleObserver current = observer;
+        if (current != null) {
+            current.vehicleChanged(this, change);
+        }
+    }
+
+    // Cached calculateFuelEfficiency(); used by sorting and reports.
+    public final double getFuelEfficiency() {
+        double value = cachedEfficiency;
+        if (Double.isNaN(value)) {
+            value = calculateFuelEfficiency();
+            cachedEfficiency = value;
+        }
+        return value;
+    }
+
+    // Cached estimateJourneyTime(1.0); every implementation is linear in distance.
+    public final double getHoursPerKm() {
+        double value = cachedHoursPerKm;
+        if (Double.isNaN(value)) {
+            value = estimateJourneyTime(1.0);
+            cachedHoursPerKm = value;
+        }
+        return value;
+    }
+
+    // Cached needsMaintenance(); false for vehicles that are not Maintainable.
+    public final boolean isMaintenanceDue() {
+        byte value = cachedMaintenanceDue;
+        if (value == UNKNOWN) {
+            value = (byte) (this instanceof Maintainable && ((Maintainable) this).needsMaintenance() ? 1 : 0);
+            cachedMaintenanceDue = value;
+        }
+        return value == 1;
+    }
+
+    public void displayInfo() {
+        System.out.println(
+            "ID: " + getId() +
+            ", Model: " + model +
+            ", Max Speed: " + maxSpeed + " km/h" +
+            ", Total Mileage: " + totalMileage + " km" +
+            ", Mileage Since Maintenance: " + mileageSinceMaintenance + " km"
+        );
+    }
+
+    // Side-effect-free projections: nothing is consumed and nothing is thrown.
+    public double projectFuelRequired(double distance) {
+        return this instanceof FuelConsumable ? ((FuelConsumable) this).fuelRequired(distance) : 0;
+    }
+
+    public boolean canCompleteJourney(double distance) {
+        if (distance < 0) return false;
+        return !(this instanceof FuelConsumable) || ((FuelConsumable) this).hasFuelFor(distance);
+    }
+
+    // Text of the journey message; only built when an event sink renders it.
+    public String describeMove(double distance) {
+        return getClass().getSimpleName() + " " + getId() + " moved " + distance + " km";
+    }
+
+    public abstract void move(double distance) throws Exception;
+
+    // Exception-free variant of move; returns an OperationStatus code. Vehicles override it with
+    // a direct implementation so the common failures never build an exception.
+    public int tryMove(double distance) {
+        try {
+            move(distance);
+            return OperationStatus.OK;
+        } catch (InsufficientFuelException e) {
+            return OperationStatus.INSUFFICIENT_FUEL;
+        } catch (InvalidOperationException e) {
+            return OperationStatus.INVALID_OPERATION;
+        } catch (OverloadException e) {
+            return OperationStatus.OVERLOAD;
+        } catch (Exception e) {
+            return OperationStatus.FAILED;
+        }
+    }
+
+    public abstract double calculateFuelEfficiency();
+    public abstract double estimateJourneyTime(double distance);
+
+    @Override
+    public int compareTo(Vehicle other) {
+        return Double.compare(
+            this.getFuelEfficiency(),
+            other.getFuelEfficiency()
+        );
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s,%s,%.1f,%.1f,%.1f",
+            getId(), model, maxSpeed, totalMileage, mileageSinceMaintenance);
+    }
+}
@@ -0,0 +1,117 @@
+package transportation.events;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import transportation.abstractclasses.Vehicle;
+
+// Lock-free multi-producer ring buffer drained by one background thread. Slots are allocated
+// once and reused, so publishing never allocates. Producers claim a sequence with a CAS and mark
+// the slot published; the consumer hands slots to the handler in sequence order.
+//
+// The handler sees the slot itself: it must call FleetEvent.copy() to keep an event past the call.
+public class AsyncEventSink implements EventSink, AutoCloseable {
+    private static final long IDLE_PARK_NANOS = 100_000;
+
+    private final FleetEvent[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long consumed = -1;
+    private volatile boolean running = true;
+    private final boolean dropWhenFull;
+    private final Consumer<FleetEvent> handler;
+    private final Thread consumer;
+
+    public AsyncEventSink(PrintStream out) {
+        this(1 << 16, false, event -> out.println(event.render()));
+    }
+
+    // capacity is rounded up to a power of two. With dropWhenFull the producer discards the event
+    // and counts it instead of waiting for the consumer to free a slot.
+    public AsyncEventSink(int capacity, boolean dropWhenFull, Consumer<FleetEvent> handler) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+        int size = 1;
+        while (size < capacity) size <<= 1;
+        this.slots = new FleetEvent[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new FleetEvent();
+            published.set(i, -1);
+        }
+        this.mask = size - 1;
+        this.dropWhenFull = dropWhenFull;
+        this.handler = handler;
+        this.consumer = new Thread(this::drainLoop, "fleet-event-sink");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @Override
+    public void publish(FleetEvent.Type type, Vehicle vehicle, double distance, String detail) {
+        long seq;
+        while (true) {
+            long current = claimed.get();
+            seq = current + 1;
+            if (seq - consumed > slots.length) {
+                if (dropWhenFull || !running) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                Thread.onSpinWait();
+                continue;
+            }
+            if (claimed.compareAndSet(current, seq)) break;
+        }
+        int index = (int) (seq & mask);
+        slots[index].set(type, vehicle, distance, detail);
+        published.lazySet(index, seq);
+    }
+
+    private void drainLoop() {
+        long next = consumed + 1;
+        while (running || next <= claimed.get()) {
+            int index = (int) (next & mask);
+            if (published.get(index) == next) {
+                FleetEvent event = slots[index];
+                try {
+                    handler.accept(event);
+                } catch (RuntimeException e) {
+                    // A failing handler must not stop the drain thread.
+                }
+                event.set(null, null, 0, null);
+                consumed = next;
+                next++;
+            } else if (next <= claimed.get()) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // Waits until everything published before this call has been handled.
+    public void flush() {
+        long target = claimed.get();
+        while (consumed < target && consumer.isAlive()) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package transportation.events;
+
+import java.io.PrintStream;
+import transportation.abstractclasses.Vehicle;
+
+// Prints each event on the publishing thread, matching the console output the CLI always had.
+public class ConsoleEventSink implements EventSink {
+    private final PrintStream out;
+
+    public ConsoleEventSink() {
+        this(System.out);
+    }
+
+    public ConsoleEventSink(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void publish(FleetEvent.Type type, Vehicle vehicle, double distance, String detail) {
+        out.println(new FleetEvent(type, vehicle, distance, detail).render());
+    }
+}
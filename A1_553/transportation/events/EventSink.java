@@ -0,0 +1,9 @@
+package transportation.events;
+
+import transportation.abstractclasses.Vehicle;
+
+// Destination for fleet messages. Arguments are passed unformatted so that a sink nobody is
+// listening to costs a virtual call and nothing else.
+public interface EventSink {
+    void publish(FleetEvent.Type type, Vehicle vehicle, double distance, String detail);
+}
@@ -0,0 +1,17 @@
+package transportation.events;
+
+// Process-wide sink used by vehicles and FleetManager. Defaults to the console.
+public final class EventSinks {
+    private static volatile EventSink current = new ConsoleEventSink();
+
+    private EventSinks() {
+    }
+
+    public static EventSink get() {
+        return current;
+    }
+
+    public static void set(EventSink sink) {
+        current = sink != null ? sink : NoOpEventSink.INSTANCE;
+    }
+}
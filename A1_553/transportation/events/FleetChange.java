@@ -0,0 +1,41 @@
+package transportation.events;
+
+import transportation.abstractclasses.Vehicle;
+
+// One entry of a FleetManager's change feed. Unlike FleetEvent it is immutable, so subscribers
+// may keep it. value is the figure the change is about: total mileage for ADDED and
+// MILEAGE_CHANGED, fuel level for FUEL_LOW, mileage since maintenance for the maintenance
+// changes, and 0 for REMOVED.
+public final class FleetChange {
+    public enum Type {
+        ADDED,
+        REMOVED,
+        MILEAGE_CHANGED,
+        MAINTENANCE_DUE,
+        MAINTENANCE_CLEARED,
+        FUEL_LOW
+    }
+
+    private final Type type;
+    private final Vehicle vehicle;
+    private final String vehicleId;
+    private final double value;
+
+    public FleetChange(Type type, Vehicle vehicle, double value) {
+        this.type = type;
+        this.vehicle = vehicle;
+        this.vehicleId = vehicle.getId();
+        this.value = value;
+    }
+
+    public Type getType() { return type; }
+    // The live vehicle; its fields may have moved on since the change was recorded.
+    public Vehicle getVehicle() { return vehicle; }
+    public String getVehicleId() { return vehicleId; }
+    public double getValue() { return value; }
+
+    @Override
+    public String toString() {
+        return type + " " + vehicleId + " " + value;
+    }
+}
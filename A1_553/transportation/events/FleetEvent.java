@@ -0,0 +1,82 @@
+package transportation.events;
+
+import transportation.abstractclasses.Vehicle;
+
+// Structured fleet message. Text is only built when a sink actually renders the event.
+public class FleetEvent {
+    public enum Type {
+        VEHICLE_MOVED,
+        MOVE_FAILED,
+        FUEL_ESTIMATE_FAILED,
+        FLEET_SAVED,
+        SAVE_FAILED,
+        FLEET_LOADED,
+        LOAD_FAILED,
+        FILE_NOT_FOUND,
+        PARSE_FAILED,
+        CREATE_FAILED,
+        CLOSE_FAILED,
+        FLEET_RECOVERED,
+        LOG_FAILED,
+        DUPLICATES_SKIPPED,
+        INDEX_WRITE_FAILED,
+        SUBSCRIBER_FAILED
+    }
+
+    private Type type;
+    private Vehicle vehicle;
+    private double distance;
+    private String detail;
+
+    public FleetEvent() {
+    }
+
+    public FleetEvent(Type type, Vehicle vehicle, double distance, String detail) {
+        set(type, vehicle, distance, detail);
+    }
+
+    void set(Type type, Vehicle vehicle, double distance, String detail) {
+        this.type = type;
+        this.vehicle = vehicle;
+        this.distance = distance;
+        this.detail = detail;
+    }
+
+    public Type getType() { return type; }
+    public Vehicle getVehicle() { return vehicle; }
+    public String getVehicleId() { return vehicle != null ? vehicle.getId() : null; }
+    public double getDistance() { return distance; }
+    public String getDetail() { return detail; }
+
+    public FleetEvent copy() {
+        return new FleetEvent(type, vehicle, distance, detail);
+    }
+
+    // Same wording the fleet used to print directly.
+    public String render() {
+        switch (type) {
+            case VEHICLE_MOVED: return vehicle.describeMove(distance);
+            case MOVE_FAILED: return "Could not move vehicle " + getVehicleId() + ": " + detail;
+            case FUEL_ESTIMATE_FAILED: return "Could not calculate fuel for vehicle " + getVehicleId() + ": " + detail;
+            case FLEET_SAVED: return "Fleet saved to " + detail;
+            case SAVE_FAILED: return "Error saving fleet: " + detail;
+            case FLEET_LOADED: return "Fleet loaded from " + detail;
+            case LOAD_FAILED: return "Error loading fleet: " + detail;
+            case FILE_NOT_FOUND: return "Error: File not found (" + detail + "). Please check the file path.";
+            case PARSE_FAILED: return "Error parsing vehicle: " + detail;
+            case CREATE_FAILED: return "Error creating vehicle: " + detail;
+            case CLOSE_FAILED: return "Error closing file reader: " + detail;
+            case FLEET_RECOVERED: return "Fleet recovered from " + detail;
+            case LOG_FAILED: return "Error writing fleet log: " + detail;
+            case DUPLICATES_SKIPPED: return "Skipped rows with duplicate vehicle IDs: " + detail;
+            case INDEX_WRITE_FAILED: return "Could not write fleet index: " + detail;
+            case SUBSCRIBER_FAILED: return "Fleet change subscriber failed: " + detail;
+            default: return type + " " + detail;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return render();
+    }
+}
@@ -1,7 +1,11 @@
-package transportation.exceptions;
-
-public class InsufficientFuelException extends Exception {
-    public InsufficientFuelException(String exp) {
-        super(exp);
-    }
+package transportation.exceptions;
+
+public class InsufficientFuelException extends Exception {
+    public InsufficientFuelException(String exp) {
+        super(exp);
+    }
+
+    public InsufficientFuelException(String exp, boolean captureStackTrace) {
+        super(exp, null, false, captureStackTrace);
+    }
 }
\ No newline at end of file
@@ -1,7 +1,11 @@
-package transportation.exceptions;
-
-public class InvalidOperationException extends Exception {
-    public InvalidOperationException(String exp) {
-        super(exp);
-    }
+package transportation.exceptions;
+
+public class InvalidOperationException extends Exception {
+    public InvalidOperationException(String exp) {
+        super(exp);
+    }
+
+    public InvalidOperationException(String exp, boolean captureStackTrace) {
+        super(exp, null, false, captureStackTrace);
+    }
 }
\ No newline at end of file
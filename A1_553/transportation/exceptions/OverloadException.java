@@ -1,7 +1,11 @@
-package transportation.exceptions;
-
-public class OverloadException extends Exception {
-    public OverloadException(String exp) {
-        super(exp);
-    }
+package transportation.exceptions;
+
+public class OverloadException extends Exception {
+    public OverloadException(String exp) {
+        super(exp);
+    }
+
+    public OverloadException(String exp, boolean captureStackTrace) {
+        super(exp, null, false, captureStackTrace);
+    }
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
-package transportation.interfaces;
-import transportation.exceptions.*;
-
-public interface CargoCarrier {
-    void loadCargo(double weight) throws OverloadException, InvalidOperationException;
-    void unloadCargo(double weight) throws InvalidOperationException;
-    double getCargoCapacity();
-    double getCurrentCargo();
+package transportation.interfaces;
+import transportation.exceptions.*;
+
+public interface CargoCarrier {
+    void loadCargo(double weight) throws OverloadException, InvalidOperationException;
+    void unloadCargo(double weight) throws InvalidOperationException;
+    double getCargoCapacity();
+    double getCurrentCargo();
+
+    // Exception-free variants; return an OperationStatus code.
+    int tryLoadCargo(double weight);
+    int tryUnloadCargo(double weight);
 }
\ No newline at end of file
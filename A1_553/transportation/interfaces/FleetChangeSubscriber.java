@@ -0,0 +1,10 @@
+package transportation.interfaces;
+
+import java.util.List;
+import transportation.events.FleetChange;
+
+// Receives a FleetManager's change feed in batches, in the order the changes were made, on the
+// feed's dispatch thread. The list is immutable and may be kept.
+public interface FleetChangeSubscriber {
+    void onChanges(List<FleetChange> changes);
+}
@@ -0,0 +1,17 @@
+package transportation.interfaces;
+
+import transportation.abstractclasses.Vehicle;
+
+// Fleet-level change notifications, e.g. for persistence. vehicleChanged is forwarded from the
+// vehicles' own observer callbacks, so it can arrive on any thread that mutates a vehicle.
+public interface FleetListener {
+    void vehicleAdded(Vehicle vehicle);
+    void vehicleRemoved(Vehicle vehicle);
+    void vehicleChanged(Vehicle vehicle, Vehicle.Change change);
+
+    // Bracket a bulk operation on the calling thread (addVehicles, loadFromFile, the batch cargo
+    // and passenger operations, a plan's apply(), each chunk of a fleet journey), so a listener
+    // can defer per-vehicle work (an fsync, say) to the end of the batch.
+    default void batchStarted() {}
+    default void batchFinished() {}
+}
@@ -1,8 +1,18 @@
-package transportation.interfaces;
-import transportation.exceptions.*;
-
-public interface FuelConsumable {
-    void refuel(double amount) throws InvalidOperationException;
-    double getFuelLevel();
-    double consumeFuel(double distance) throws InsufficientFuelException;
+package transportation.interfaces;
+import transportation.exceptions.*;
+
+public interface FuelConsumable {
+    void refuel(double amount) throws InvalidOperationException;
+    double getFuelLevel();
+    double consumeFuel(double distance) throws InsufficientFuelException;
+
+    int tryRefuel(double amount);
+    int tryConsumeFuel(double distance);
+
+    // Fuel a journey of this distance would take, without consuming anything.
+    double fuelRequired(double distance);
+
+    default boolean hasFuelFor(double distance) {
+        return distance >= 0 && getFuelLevel() >= fuelRequired(distance);
+    }
 }
\ No newline at end of file
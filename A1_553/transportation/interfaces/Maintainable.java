@@ -1,7 +1,9 @@
-package transportation.interfaces;
-
-public interface Maintainable {
-    void scheduleMaintenance();
-    boolean needsMaintenance();
-    void performMaintenance();
-}
+package transportation.interfaces;
+
+public interface Maintainable {
+    void scheduleMaintenance();
+    boolean needsMaintenance();
+    // True while maintenance has been scheduled and not yet performed, whatever the mileage.
+    boolean isMaintenanceScheduled();
+    void performMaintenance();
+}
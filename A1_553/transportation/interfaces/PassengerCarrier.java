@@ -1,9 +1,12 @@
-package transportation.interfaces;
-import transportation.exceptions.*;
-
-public interface PassengerCarrier {
-    void boardPassengers(int count) throws OverloadException;
-    void disembarkPassengers(int count) throws InvalidOperationException;
-    int getPassengerCapacity();
-    int getCurrentPassengers();
+package transportation.interfaces;
+import transportation.exceptions.*;
+
+public interface PassengerCarrier {
+    void boardPassengers(int count) throws OverloadException;
+    void disembarkPassengers(int count) throws InvalidOperationException;
+    int getPassengerCapacity();
+    int getCurrentPassengers();
+
+    int tryBoardPassengers(int count);
+    int tryDisembarkPassengers(int count);
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package transportation.interfaces;
+
+import transportation.abstractclasses.Vehicle;
+
+public interface VehicleObserver {
+    void vehicleChanged(Vehicle vehicle, Vehicle.Change change);
+}
@@ -0,0 +1,98 @@
+package transportation.management;
+
+import java.util.ArrayList;
+import java.util.List;
+import transportation.abstractclasses.Vehicle;
+import transportation.interfaces.CargoCarrier;
+import transportation.utility.OperationStatus;
+
+// Plan produced by CargoAssignmentEngine: for each shipment, the vehicle it should be loaded on,
+// or none when it did not fit anywhere. Nothing is loaded until apply() is called.
+public class CargoAssignment {
+    private final double[] weights;
+    private final Vehicle[] vehicles;
+    private final int[] assignment;
+    private final long elapsedNanos;
+    private final FleetManager manager;
+
+    CargoAssignment(FleetManager manager, double[] weights, Vehicle[] vehicles, int[] assignment, long elapsedNanos) {
+        this.manager = manager;
+        this.weights = weights;
+        this.vehicles = vehicles;
+        this.assignment = assignment;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int size() {
+        return weights.length;
+    }
+
+    public double getWeight(int shipment) {
+        return weights[shipment];
+    }
+
+    // Null when the shipment could not be placed.
+    public Vehicle getVehicle(int shipment) {
+        int bin = assignment[shipment];
+        return bin < 0 ? null : vehicles[bin];
+    }
+
+    public int getAssignedCount() {
+        int count = 0;
+        for (int bin : assignment) {
+            if (bin >= 0) count++;
+        }
+        return count;
+    }
+
+    public int getUnassignedCount() {
+        return assignment.length - getAssignedCount();
+    }
+
+    public double getAssignedWeight() {
+        double total = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] >= 0) total += weights[i];
+        }
+        return total;
+    }
+
+    public List<Integer> unassignedIndexes() {
+        List<Integer> result = new ArrayList<>();
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] < 0) result.add(i);
+        }
+        return result;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // Loads every assigned shipment and returns one OperationStatus code per shipment. Unplaced
+    // shipments report OVERLOAD (or INVALID_ARGUMENT for a non-positive weight). A vehicle whose
+    // cargo changed since planning may reject its shipment, which is reported the same way.
+    // Loads every placed shipment; the fleet's listeners see the loads as one batch.
+    public byte[] apply() {
+        byte[] statuses = new byte[weights.length];
+        manager.notifyBatch(true);
+        try {
+            for (int i = 0; i < weights.length; i++) {
+                int bin = assignment[i];
+                if (bin >= 0) {
+                    statuses[i] = (byte) ((CargoCarrier) vehicles[bin]).tryLoadCargo(weights[i]);
+                } else {
+                    statuses[i] = (byte) (weights[i] > 0 ? OperationStatus.OVERLOAD : OperationStatus.INVALID_ARGUMENT);
+                }
+            }
+        } finally {
+            manager.notifyBatch(false);
+        }
+        return statuses;
+    }
+
+    public String summary() {
+        return String.format("%d shipments: %d assigned (%.1f kg), %d unassigned (%.1f ms)",
+            weights.length, getAssignedCount(), getAssignedWeight(), getUnassignedCount(), elapsedNanos / 1e6);
+    }
+}
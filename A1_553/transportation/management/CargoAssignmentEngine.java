@@ -0,0 +1,187 @@
+package transportation.management;
+
+import java.util.*;
+import java.util.stream.IntStream;
+import transportation.abstractclasses.Vehicle;
+import transportation.interfaces.CargoCarrier;
+
+// Packs shipments onto the fleet's cargo carriers without exceeding any vehicle's free capacity
+// (getCargoCapacity() - getCurrentCargo()). Free capacity is copied once when the engine is
+// created; plan() works on that copy and never loads anything.
+//
+// Vehicles are grouped by concrete class: classes in the order the fleet first saw them, and
+// vehicles within a class in the order they were added. That is not getFleet() order once the
+// fleet mixes classes or has been sorted.
+//
+// Both strategies place the heaviest shipments first:
+//  - FIRST_FIT_DECREASING takes the first vehicle, in that grouped order, with enough room, found
+//    in O(log V) by a FirstFitTree.
+//  - BEST_FIT_DECREASING takes the vehicle that would be left with the least room, looked up in a
+//    TreeMap keyed by free capacity.
+//
+// With partitionByType each concrete vehicle class is packed on its own thread. Shipments are
+// dealt to the class with the most free capacity left; whatever a class cannot place gets a
+// final pass over every vehicle.
+public class CargoAssignmentEngine {
+    public enum Strategy {
+        FIRST_FIT_DECREASING,
+        BEST_FIT_DECREASING
+    }
+
+    private final Vehicle[] vehicles;
+    private final double[] freeCapacity;
+    // Vehicles of partition p occupy [partitionStart[p], partitionStart[p + 1]).
+    private final int[] partitionStart;
+    private final FleetManager manager;
+
+    public CargoAssignmentEngine(FleetManager manager) {
+        this.manager = manager;
+        List<Set<Vehicle>> buckets = manager.getTypeBuckets(CargoCarrier.class);
+        int count = 0;
+        for (Set<Vehicle> bucket : buckets) {
+            count += bucket.size();
+        }
+        vehicles = new Vehicle[count];
+        freeCapacity = new double[count];
+        partitionStart = new int[buckets.size() + 1];
+        int i = 0;
+        for (int p = 0; p < buckets.size(); p++) {
+            partitionStart[p] = i;
+            for (Vehicle v : buckets.get(p)) {
+                CargoCarrier carrier = (CargoCarrier) v;
+                vehicles[i] = v;
+                freeCapacity[i] = Math.max(0, carrier.getCargoCapacity() - carrier.getCurrentCargo());
+                i++;
+            }
+        }
+        partitionStart[buckets.size()] = count;
+    }
+
+    public int getVehicleCount() {
+        return vehicles.length;
+    }
+
+    public double getTotalFreeCapacity() {
+        double total = 0;
+        for (double free : freeCapacity) {
+            total += free;
+        }
+        return total;
+    }
+
+    public CargoAssignment plan(double[] weights, Strategy strategy, boolean partitionByType) {
+        long start = System.nanoTime();
+        int[] assignment = new int[weights.length];
+        Arrays.fill(assignment, -1);
+        double[] free = freeCapacity.clone();
+        int[] order = decreasingOrder(weights);
+
+        int partitions = partitionStart.length - 1;
+        if (partitionByType && partitions > 1) {
+            int[][] dealt = deal(weights, order, partitions);
+            IntStream.range(0, partitions).parallel().forEach(p ->
+                pack(weights, dealt[p], newPacker(strategy, free, partitionStart[p], partitionStart[p + 1]), assignment));
+            // Anything a partition could not hold may still fit in another one.
+            int leftovers = 0;
+            for (int s : order) {
+                if (assignment[s] < 0) order[leftovers++] = s;
+            }
+            order = Arrays.copyOf(order, leftovers);
+        }
+        pack(weights, order, newPacker(strategy, free, 0, vehicles.length), assignment);
+
+        return new CargoAssignment(manager, weights.clone(), vehicles, assignment, System.nanoTime() - start);
+    }
+
+    // Indexes of the positive weights, heaviest first.
+    private static int[] decreasingOrder(double[] weights) {
+        return IntStream.range(0, weights.length)
+            .filter(i -> weights[i] > 0)
+            .boxed()
+            .sorted((a, b) -> Double.compare(weights[b], weights[a]))
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+
+    // Splits the ordered shipments between partitions, keeping each partition's share heaviest first.
+    private int[][] deal(double[] weights, int[] order, int partitions) {
+        double[] room = new double[partitions];
+        double[] largest = new double[partitions];
+        for (int p = 0; p < partitions; p++) {
+            for (int i = partitionStart[p]; i < partitionStart[p + 1]; i++) {
+                room[p] += freeCapacity[i];
+                largest[p] = Math.max(largest[p], freeCapacity[i]);
+            }
+        }
+        int[][] dealt = new int[partitions][];
+        int[] counts = new int[partitions];
+        int[] target = new int[order.length];
+        for (int k = 0; k < order.length; k++) {
+            double w = weights[order[k]];
+            int best = -1;
+            for (int p = 0; p < partitions; p++) {
+                if (largest[p] >= w && (best < 0 || room[p] > room[best])) best = p;
+            }
+            target[k] = best;
+            if (best >= 0) {
+                room[best] -= w;
+                counts[best]++;
+            }
+        }
+        for (int p = 0; p < partitions; p++) {
+            dealt[p] = new int[counts[p]];
+            counts[p] = 0;
+        }
+        for (int k = 0; k < order.length; k++) {
+            int p = target[k];
+            if (p >= 0) dealt[p][counts[p]++] = order[k];
+        }
+        return dealt;
+    }
+
+    private static void pack(double[] weights, int[] shipments, Packer packer, int[] assignment) {
+        for (int s : shipments) {
+            assignment[s] = packer.place(weights[s]);
+        }
+    }
+
+    private static Packer newPacker(Strategy strategy, double[] free, int from, int to) {
+        return strategy == Strategy.BEST_FIT_DECREASING ? new BestFit(free, from, to) : new FirstFitTree(free, from, to)::place;
+    }
+
+    // Places one shipment, reducing the chosen vehicle's free capacity; returns its index or -1.
+    private interface Packer {
+        int place(double weight);
+    }
+
+    private static final class BestFit implements Packer {
+        private final double[] free;
+        private final TreeMap<Double, ArrayDeque<Integer>> byFreeCapacity = new TreeMap<>();
+
+        BestFit(double[] free, int from, int to) {
+            this.free = free;
+            for (int i = from; i < to; i++) {
+                add(i);
+            }
+        }
+
+        private void add(int vehicle) {
+            if (free[vehicle] > 0) {
+                byFreeCapacity.computeIfAbsent(free[vehicle], k -> new ArrayDeque<>()).add(vehicle);
+            }
+        }
+
+        @Override
+        public int place(double weight) {
+            Map.Entry<Double, ArrayDeque<Integer>> entry = byFreeCapacity.ceilingEntry(weight);
+            if (entry == null) return -1;
+            int vehicle = entry.getValue().poll();
+            if (entry.getValue().isEmpty()) {
+                byFreeCapacity.remove(entry.getKey());
+            }
+            free[vehicle] -= weight;
+            add(vehicle);
+            return vehicle;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package transportation.management;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import transportation.abstractclasses.Vehicle;
+import transportation.exceptions.InvalidOperationException;
+import transportation.vehicles.*;
+
+// Fleet registry for services where many threads add, remove, look up and report at once.
+// Writes lock only the stripe that owns the vehicle ID. Each stripe's map is a ConcurrentHashMap,
+// so getVehicleById is a plain map read with no lock or stamp. Reports walk the stripes under
+// optimistic stamps, falling back to read locks when a writer got in the way. Snapshots hold every stripe's read lock at the same
+// time, so they reflect one consistent instant.
+public class ConcurrentFleetManager {
+    private static final int DEFAULT_STRIPES = 64;
+
+    private static final class Stripe {
+        final StampedLock lock = new StampedLock();
+        final Map<String, Vehicle> vehicles = new ConcurrentHashMap<>();
+    }
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final AtomicLong version = new AtomicLong();
+    private volatile FleetSnapshot snapshot;
+
+    public ConcurrentFleetManager() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public ConcurrentFleetManager(int stripeCount) {
+        if (stripeCount <= 0) throw new IllegalArgumentException("Stripe count must be positive");
+        int size = 1;
+        while (size < stripeCount) size <<= 1;
+        stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        mask = size - 1;
+    }
+
+    private Stripe stripeFor(String id) {
+        int h = id.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    public void addVehicle(Vehicle vehicle) throws InvalidOperationException {
+        Stripe stripe = stripeFor(vehicle.getId());
+        long stamp = stripe.lock.writeLock();
+        try {
+            if (stripe.vehicles.putIfAbsent(vehicle.getId(), vehicle) != null) {
+                throw new InvalidOperationException("Vehicle with ID " + vehicle.getId() + " already exists");
+            }
+            version.incrementAndGet();
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    public Vehicle removeVehicle(String id) throws InvalidOperationException {
+        Stripe stripe = stripeFor(id);
+        long stamp = stripe.lock.writeLock();
+        try {
+            Vehicle removed = stripe.vehicles.remove(id);
+            if (removed == null) {
+                throw new InvalidOperationException("Vehicle with ID " + id + " not found");
+            }
+            version.incrementAndGet();
+            return removed;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    public Vehicle getVehicleById(String id) {
+        return stripeFor(id).vehicles.get(id);
+    }
+
+    public boolean contains(String id) {
+        return getVehicleById(id) != null;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public int size() {
+        return readAll(new FleetReader<Integer>() {
+            int count;
+
+            @Override
+            public void reset() { count = 0; }
+
+            @Override
+            public void read(Map<String, Vehicle> vehicles) { count += vehicles.size(); }
+
+            @Override
+            public Integer result() { return count; }
+        });
+    }
+
+    // Consistent view of the whole fleet; reused until the next add or remove.
+    public FleetSnapshot getSnapshot() {
+        FleetSnapshot current = snapshot;
+        if (current != null && current.getVersion() == version.get()) {
+            return current;
+        }
+        long[] stamps = new long[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            stamps[i] = stripes[i].lock.readLock();
+        }
+        try {
+            List<Vehicle> all = new ArrayList<>();
+            for (Stripe stripe : stripes) {
+                all.addAll(stripe.vehicles.values());
+            }
+            // No writer can run while every read lock is held, so the version matches the contents.
+            current = new FleetSnapshot(version.get(), all.toArray(new Vehicle[0]));
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].lock.unlockRead(stamps[i]);
+            }
+        }
+        snapshot = current;
+        return current;
+    }
+
+    public List<Vehicle> searchByType(Class<?> type) {
+        List<Vehicle> result = new ArrayList<>();
+        for (Vehicle vehicle : getSnapshot()) {
+            if (type.isInstance(vehicle)) {
+                result.add(vehicle);
+            }
+        }
+        return result;
+    }
+
+    private interface FleetReader<T> {
+        void reset();
+        void read(Map<String, Vehicle> vehicles);
+        T result();
+    }
+
+    // One optimistic pass over every stripe; if any stripe was written meanwhile the pass is
+    // repeated holding all read locks. The maps are safe to walk during writes, so the stamps only
+    // decide whether the totals describe a single instant.
+    private <T> T readAll(FleetReader<T> reader) {
+        long[] stamps = new long[stripes.length];
+        boolean valid = true;
+        reader.reset();
+        for (int i = 0; i < stripes.length && valid; i++) {
+            stamps[i] = stripes[i].lock.tryOptimisticRead();
+            if (stamps[i] == 0) {
+                valid = false;
+            } else {
+                reader.read(stripes[i].vehicles);
+            }
+        }
+        for (int i = 0; i < stripes.length && valid; i++) {
+            valid = stripes[i].lock.validate(stamps[i]);
+        }
+        if (valid) return reader.result();
+
+        for (int i = 0; i < stripes.length; i++) {
+            stamps[i] = stripes[i].lock.readLock();
+        }
+        try {
+            reader.reset();
+            for (Stripe stripe : stripes) {
+                reader.read(stripe.vehicles);
+            }
+            return reader.result();
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].lock.unlockRead(stamps[i]);
+            }
+        }
+    }
+
+    public String generateReport() {
+        return readAll(new FleetReader<String>() {
+            int total, cars, trucks, buses, airplanes, cargoShips, maintenanceNeeded;
+            double totalEfficiency, totalMileage;
+
+            @Override
+            public void reset() {
+                total = cars = trucks = buses = airplanes = cargoShips = maintenanceNeeded = 0;
+                totalEfficiency = totalMileage = 0;
+            }
+
+            @Override
+            public void read(Map<String, Vehicle> vehicles) {
+                for (Vehicle v : vehicles.values()) {
+                    total++;
+                    if (v instanceof Car) cars++;
+                    else if (v instanceof Truck) trucks++;
+                    else if (v instanceof Bus) buses++;
+                    else if (v instanceof Airplane) airplanes++;
+                    else if (v instanceof CargoShip) cargoShips++;
+                    totalEfficiency += v.getFuelEfficiency();
+                    totalMileage += v.getTotalMileage();
+                    if (v.isMaintenanceDue()) {
+                        maintenanceNeeded++;
+                    }
+                }
+            }
+
+            @Override
+            public String result() {
+                StringBuilder report = new StringBuilder();
+                report.append("FLEET REPORT\n");
+                report.append("Total vehicles: ").append(total).append("\n");
+                report.append("Cars: ").append(cars).append("\n");
+                report.append("Trucks: ").append(trucks).append("\n");
+                report.append("Buses: ").append(buses).append("\n");
+                report.append("Airplanes: ").append(airplanes).append("\n");
+                report.append("CargoShips: ").append(cargoShips).append("\n");
+                double avgEfficiency = total > 0 ? totalEfficiency / total : 0;
+                report.append("Average fuel efficiency: ").append(String.format("%.2f km/l", avgEfficiency)).append("\n");
+                report.append("Total mileage: ").append(String.format("%.1f km", totalMileage)).append("\n");
+                report.append("Vehicles needing maintenance: ").append(maintenanceNeeded).append("\n");
+                return report.toString();
+            }
+        });
+    }
+}
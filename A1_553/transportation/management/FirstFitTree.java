@@ -0,0 +1,49 @@
+package transportation.management;
+
+import java.util.Arrays;
+
+// Max segment tree over free[from, to). place(amount) finds the lowest index whose free room is
+// at least amount, takes the amount from it and returns the index, all in O(log n). The caller's
+// array is updated in place.
+class FirstFitTree {
+    private final double[] free;
+    private final int from;
+    private final int leaves;
+    private final double[] tree;
+
+    FirstFitTree(double[] free, int from, int to) {
+        this.free = free;
+        this.from = from;
+        int size = 1;
+        while (size < to - from) size <<= 1;
+        leaves = size;
+        tree = new double[2 * size];
+        Arrays.fill(tree, Double.NEGATIVE_INFINITY);
+        for (int i = from; i < to; i++) {
+            tree[size + i - from] = free[i];
+        }
+        for (int node = size - 1; node > 0; node--) {
+            tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    double largest() {
+        return tree[1];
+    }
+
+    // Returns -1, leaving everything unchanged, when no slot has enough room.
+    int place(double amount) {
+        if (tree[1] < amount) return -1;
+        int node = 1;
+        while (node < leaves) {
+            node = tree[2 * node] >= amount ? 2 * node : 2 * node + 1;
+        }
+        int slot = from + node - leaves;
+        free[slot] -= amount;
+        tree[node] = free[slot];
+        for (node >>= 1; node > 0; node >>= 1) {
+            tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,203 @@
+package transportation.management;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import transportation.abstractclasses.Vehicle;
+import transportation.events.EventSinks;
+import transportation.events.FleetChange;
+import transportation.events.FleetEvent;
+import transportation.interfaces.FleetChangeSubscriber;
+import transportation.interfaces.FleetListener;
+import transportation.interfaces.FuelConsumable;
+
+// Turns a FleetManager's listener callbacks into typed FleetChange entries and hands them to
+// subscribers in batches. Mutating threads only append to a lock-free queue; one daemon thread
+// drains up to MAX_BATCH entries at a time and calls every subscriber with the same batch, so a
+// burst of changes costs subscribers one call per batch rather than one per change.
+//
+// The dispatch thread parks while the queue is empty and a publisher that finds it parked wakes
+// it, so an idle feed costs nothing.
+//
+// MAINTENANCE_DUE/CLEARED and FUEL_LOW fire on the edge: once when a vehicle crosses into the
+// state, and (for maintenance) once when it leaves. Obtain one with FleetManager.changeFeed();
+// close() detaches it from the manager.
+public class FleetChangeFeed implements FleetListener, AutoCloseable {
+    public static final double DEFAULT_LOW_FUEL_THRESHOLD = 10.0;
+
+    private static final int MAX_BATCH = 1024;
+    private static final long FLUSH_POLL_NANOS = 100_000;
+
+    private final FleetManager manager;
+    private final Queue<FleetChange> queue = new ConcurrentLinkedQueue<>();
+    private final List<FleetChangeSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    // Vehicles currently in each edge-triggered state.
+    private final Set<Vehicle> maintenanceDue = ConcurrentHashMap.newKeySet();
+    private final Set<Vehicle> fuelLow = ConcurrentHashMap.newKeySet();
+    private final AtomicLong published = new AtomicLong();
+    private volatile long dispatched;
+    private volatile double lowFuelThreshold = DEFAULT_LOW_FUEL_THRESHOLD;
+    private volatile boolean running = true;
+    // Set by the dispatcher just before it parks.
+    private volatile boolean idle;
+    private final Thread dispatcher;
+
+    // The current fleet seeds the edge states, so vehicles already due or low do not fire again.
+    FleetChangeFeed(FleetManager manager) {
+        this.manager = manager;
+        for (Vehicle v : manager.getFleetView()) {
+            if (v.isMaintenanceDue()) maintenanceDue.add(v);
+            if (isFuelLow(v)) fuelLow.add(v);
+        }
+        this.dispatcher = new Thread(this::dispatchLoop, "fleet-change-feed");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    public void subscribe(FleetChangeSubscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(FleetChangeSubscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    // Fuel level at or below which a FuelConsumable vehicle is reported as FUEL_LOW.
+    public void setLowFuelThreshold(double threshold) {
+        if (threshold < 0) throw new IllegalArgumentException("Threshold cannot be negative");
+        this.lowFuelThreshold = threshold;
+    }
+
+    public double getLowFuelThreshold() {
+        return lowFuelThreshold;
+    }
+
+    @Override
+    public void vehicleAdded(Vehicle vehicle) {
+        publish(new FleetChange(FleetChange.Type.ADDED, vehicle, vehicle.getTotalMileage()));
+        checkMaintenance(vehicle);
+        checkFuel(vehicle);
+    }
+
+    @Override
+    public void vehicleRemoved(Vehicle vehicle) {
+        maintenanceDue.remove(vehicle);
+        fuelLow.remove(vehicle);
+        publish(new FleetChange(FleetChange.Type.REMOVED, vehicle, 0));
+    }
+
+    @Override
+    public void vehicleChanged(Vehicle vehicle, Vehicle.Change change) {
+        switch (change) {
+            case MILEAGE:
+                publish(new FleetChange(FleetChange.Type.MILEAGE_CHANGED, vehicle, vehicle.getTotalMileage()));
+                checkMaintenance(vehicle);
+                break;
+            case MAINTENANCE:
+                checkMaintenance(vehicle);
+                break;
+            case FUEL:
+                checkFuel(vehicle);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void checkMaintenance(Vehicle vehicle) {
+        // add/remove report whether the state flipped, so racing threads publish each edge once.
+        if (vehicle.isMaintenanceDue()) {
+            if (maintenanceDue.add(vehicle)) {
+                publish(new FleetChange(FleetChange.Type.MAINTENANCE_DUE, vehicle, vehicle.getMileageSinceMaintenance()));
+            }
+        } else if (maintenanceDue.remove(vehicle)) {
+            publish(new FleetChange(FleetChange.Type.MAINTENANCE_CLEARED, vehicle, vehicle.getMileageSinceMaintenance()));
+        }
+    }
+
+    private void checkFuel(Vehicle vehicle) {
+        if (isFuelLow(vehicle)) {
+            if (fuelLow.add(vehicle)) {
+                publish(new FleetChange(FleetChange.Type.FUEL_LOW, vehicle, ((FuelConsumable) vehicle).getFuelLevel()));
+            }
+        } else {
+            fuelLow.remove(vehicle);
+        }
+    }
+
+    private boolean isFuelLow(Vehicle vehicle) {
+        return vehicle instanceof FuelConsumable && ((FuelConsumable) vehicle).getFuelLevel() <= lowFuelThreshold;
+    }
+
+    private void publish(FleetChange change) {
+        if (!running) return;
+        queue.add(change);
+        published.incrementAndGet();
+        if (idle) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    private void dispatchLoop() {
+        List<FleetChange> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            FleetChange change;
+            while (batch.size() < MAX_BATCH && (change = queue.poll()) != null) {
+                batch.add(change);
+            }
+            if (batch.isEmpty()) {
+                if (!running) return;
+                // idle is published before the queue is checked again, so a change added after
+                // that check sees idle and unparks us; park then returns at once.
+                idle = true;
+                if (queue.isEmpty() && running) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+                continue;
+            }
+            List<FleetChange> delivered = List.copyOf(batch);
+            for (FleetChangeSubscriber subscriber : subscribers) {
+                try {
+                    subscriber.onChanges(delivered);
+                } catch (RuntimeException e) {
+                    // One failing subscriber must not starve the others.
+                    EventSinks.get().publish(FleetEvent.Type.SUBSCRIBER_FAILED, null, 0, e.toString());
+                }
+            }
+            dispatched += batch.size();
+            batch.clear();
+        }
+    }
+
+    // Waits until every change published before this call has been delivered. A subscriber
+    // calling it from onChanges returns at once: the rest is delivered after it returns.
+    public void flush() {
+        if (Thread.currentThread() == dispatcher) return;
+        long target = published.get();
+        while (dispatched < target && dispatcher.isAlive()) {
+            LockSupport.parkNanos(FLUSH_POLL_NANOS);
+        }
+    }
+
+    public boolean isClosed() {
+        return !running;
+    }
+
+    // Detaches from the manager, delivers what is queued, then stops.
+    @Override
+    public void close() {
+        manager.removeFleetListener(this);
+        running = false;
+        LockSupport.unpark(dispatcher);
+        if (Thread.currentThread() == dispatcher) return;
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
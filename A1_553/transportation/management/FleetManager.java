@@ -1,369 +1,766 @@
-package transportation.management;
-
-import java.util.*;
-import java.io.*;
-import transportation.vehicles.*;
-import transportation.abstractclasses.Vehicle;
-import transportation.exceptions.*;
-import transportation.interfaces.*;
-import transportation.utility.*;
-
-public class FleetManager {
-    private List<Vehicle> fleet = new ArrayList<>();
-    private Set<String> distinctModels = new TreeSet<>();
-
-    public void addVehicle(Vehicle vehicle) throws InvalidOperationException {
-        for (Vehicle v : fleet) {
-            if (v.getId().equals(vehicle.getId())) {
-                throw new InvalidOperationException("Vehicle with ID " + vehicle.getId() + " already exists");
-            }
-        }
-        fleet.add(vehicle);
-        distinctModels.add(vehicle.getModel());
-    }
-
-    public void removeVehicle(String id) throws InvalidOperationException {
-        Vehicle vehicleToRemove = null;
-        for (Iterator<Vehicle> iterator = fleet.iterator(); iterator.hasNext();) {
-            Vehicle vehicle = iterator.next();
-            if (vehicle.getId().equals(id)) {
-                iterator.remove();
-                vehicleToRemove = vehicle;
-                break;
-            }
-        }
-        
-        if (vehicleToRemove != null) {
-            rebuildDistinctModels();
-            return;
-        }
-
-        throw new InvalidOperationException("Vehicle with ID " + id + " not found");
-    }
-    
-    private void rebuildDistinctModels() {
-        distinctModels.clear();
-        for (Vehicle v : fleet) {
-            distinctModels.add(v.getModel());
-        }
-    }
-
-    public Vehicle getVehicleById(String id) {
-        for (Vehicle v : fleet) {
-            if (v.getId().equals(id)) return v;
-        }
-        return null;
-    }
-
-    public List<Vehicle> getFleet() {
-        return new ArrayList<>(fleet);
-    }
-    
-    public Set<String> getDistinctModels() {
-        return distinctModels;
-    }
-
-    public void startAllJourneys(double distance) {
-        for (Vehicle v : fleet) {
-            try {
-                v.move(distance);
-            } catch (Exception e) {
-                System.out.println("Could not move vehicle " + v.getId() + ": " + e.getMessage());
-            }
-        }
-    }
-
-    public double getTotalFuelConsumption(double distance) {
-        double totalFuel = 0;
-        for (Vehicle v : fleet) {
-            if (v instanceof FuelConsumable) {
-                try {
-                    FuelConsumable f = (FuelConsumable) v;
-                    totalFuel += f.consumeFuel(distance);
-                } catch (Exception e) {
-                    System.out.println("Could not calculate fuel for vehicle " + v.getId() + ": " + e.getMessage());
-                }
-            }
-        }
-        return totalFuel;
-    }
-
-    public void maintainAll() {
-        for (Vehicle vehicle : fleet) {
-            if (vehicle instanceof Maintainable) {
-                Maintainable maintainable = (Maintainable) vehicle;
-                if (maintainable.needsMaintenance()) {
-                    maintainable.performMaintenance();
-                }
-            }
-        }
-    }
-
-    public List<Vehicle> searchByType(Class<?> type) {
-        List<Vehicle> result = new ArrayList<>();
-        for (Vehicle vehicle : fleet) {
-            if (type.isInstance(vehicle)) {
-                result.add(vehicle);
-            }
-        }
-        return result;
-    }
-
-    public void sortFleetByEfficiency() {
-        Collections.sort(fleet);
-    }
-    
-    public void sortFleetByEfficiencyDescending() {
-        Collections.sort(fleet, new EfficiencyComparator()); 
-    }
-    
-    public void sortFleetBySpeed() {
-        Collections.sort(fleet, new MaxSpeedComparator());
-    }
-
-    public void sortFleetByModelName() {
-        Collections.sort(fleet, new ModelNameComparator());
-    }
-
-    public void sortFleetByTotalMileage() {
-        Collections.sort(fleet, new TotalMileageComparator());
-    }
-
-      public Vehicle getFastestVehicle() {
-        if (fleet.isEmpty()) return null;
-        return Collections.max(fleet, Collections.reverseOrder(new MaxSpeedComparator()));
-    }
-    
-    public Vehicle getLeastEfficientVehicle() {
-        if (fleet.isEmpty()) return null;
-        return Collections.min(fleet);
-    }
-
-    public String generateReport() {
-        StringBuilder report = new StringBuilder();
-        report.append("FLEET REPORT\n");
-        report.append("Total vehicles: ").append(fleet.size()).append("\n");
-
-        int cars = searchByType(Car.class).size();
-        int trucks = searchByType(Truck.class).size();
-        int buses = searchByType(Bus.class).size();
-        int airplanes = searchByType(Airplane.class).size();
-        int cargoShips = searchByType(CargoShip.class).size();
-
-        report.append("Cars: ").append(cars).append("\n");
-        report.append("Trucks: ").append(trucks).append("\n");
-        report.append("Buses: ").append(buses).append("\n");
-        report.append("Airplanes: ").append(airplanes).append("\n");
-        report.append("CargoShips: ").append(cargoShips).append("\n");
-        
-        report.append("Distinct Vehicle Models: ").append(distinctModels.size()).append("\n");
-        
-        Vehicle fastest = getFastestVehicle();
-        if (fastest != null) {
-            report.append("Fastest Vehicle (ID/Model/Speed): ").append(fastest.getId()).append("/").append(fastest.getModel()).append("/").append(String.format("%.1f km/h", fastest.getMaxSpeed())).append("\n");
-        }
-        
-        Vehicle leastEfficient = getLeastEfficientVehicle();
-        if (leastEfficient != null) {
-            report.append("Least Efficient Vehicle (ID/Model/Efficiency): ").append(leastEfficient.getId()).append("/").append(leastEfficient.getModel()).append("/").append(String.format("%.2f km/l", leastEfficient.calculateFuelEfficiency())).append("\n");
-        }
-
-
-        double totalEfficiency = 0;
-        int vehicleCount = 0;
-        for (Vehicle v : fleet) {
-            totalEfficiency += v.calculateFuelEfficiency();
-            vehicleCount++;
-        }
-        double avgEfficiency = vehicleCount > 0 ? totalEfficiency / vehicleCount : 0;
-        report.append("Average fuel efficiency: ").append(String.format("%.2f km/l", avgEfficiency)).append("\n");
-
-        double totalMileage = 0;
-        for (Vehicle v : fleet) {
-            totalMileage += v.getTotalMileage(); 
-        }
-        report.append("Total mileage: ").append(String.format("%.1f km", totalMileage)).append("\n");
-
-        long maintenanceNeeded = 0;
-        for (Vehicle v : fleet) {
-            if (v instanceof Maintainable) {
-                if (((Maintainable) v).needsMaintenance()) {
-                    maintenanceNeeded++;
-                }
-            }
-        }
-        report.append("Vehicles needing maintenance: ").append(maintenanceNeeded).append("\n");
-
-        return report.toString();
-    }
-
-    public List<Vehicle> getVehiclesNeedingMaintenance() {
-        List<Vehicle> result = new ArrayList<>();
-        for (Vehicle vehicle : fleet) {
-            if (vehicle instanceof Maintainable) {
-                if (((Maintainable) vehicle).needsMaintenance()) {
-                    result.add(vehicle);
-                }
-            }
-        }
-        return result;
-    }
-
-    // Using try-catch-finally for manual resource closing.
-    public void saveToFile(String filename) {
-        PrintWriter writer = null;
-        try {
-            writer = new PrintWriter(new FileWriter(filename));
-            writer.println("Type,Id,Model,MaxSpeed,TotalMileage,MileageSinceMaintenance,Field1,Field2,Field3,Field4,Field5");
-            for (Vehicle vehicle : fleet) {
-                writer.println(vehicle.toString()); 
-            }
-            System.out.println("Fleet saved to " + filename);
-        } catch (IOException e) {
-            System.out.println("Error saving fleet: " + e.getMessage());
-        } finally {
-            if (writer != null) {
-                writer.close();
-            }
-        }
-    }
-
-    // Using try-catch-finally for manual resource closing.
-    public void loadFromFile(String filename) {
-        BufferedReader reader = null;
-        fleet.clear();
-        distinctModels.clear();
-
-        try {
-            reader = new BufferedReader(new FileReader(filename));
-            String line = reader.readLine(); 
-            while ((line = reader.readLine()) != null) {
-                try {
-                    Vehicle vehicle = createVehicleFromString(line);
-                    if (vehicle != null) {
-                        fleet.add(vehicle);
-                        distinctModels.add(vehicle.getModel());
-                    }
-                } catch (Exception e) {
-                    System.out.println("Error parsing vehicle: " + e.getMessage());
-                }
-            }
-            System.out.println("Fleet loaded from " + filename);
-        } catch (FileNotFoundException e) {
-            System.out.println("Error: File not found (" + filename + "). Please check the file path.");
-        } catch (IOException e) {
-            System.out.println("Error loading fleet: " + e.getMessage());
-        } finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (IOException e) {
-                    System.out.println("Error closing file reader: " + e.getMessage());
-                }
-            }
-        }
-    }
-
-    private Vehicle createVehicleFromString(String data) throws InvalidOperationException {
-        String[] parts = data.split(",", -1);
-        if (parts.length < 6) return null; 
-
-        String type = parts[0];
-        String id = parts[1];
-        String model = parts[2];
-        double maxSpeed = Double.parseDouble(parts[3]);
-        double totalMileage = Double.parseDouble(parts[4]);
-        double mileageSinceMaintenance = Double.parseDouble(parts[5]);
-
-        Vehicle vehicle = null;
-        
-        int numWheels;
-        double fuelLevel;
-        double cargo;
-        int passengers;
-        boolean maint;
-
-        try {
-            switch (type) {
-                case "Car":
-                    numWheels = Integer.parseInt(parts[6]);
-                    fuelLevel = Double.parseDouble(parts[7]);
-                    passengers = Integer.parseInt(parts[8]);
-                    maint = Boolean.parseBoolean(parts[9]);
-
-                    Car car = new Car(id, model, maxSpeed, numWheels);
-                    if (fuelLevel > 0.0) ((FuelConsumable) car).refuel(fuelLevel);
-                    if (passengers > 0) ((PassengerCarrier) car).boardPassengers(passengers); 
-                    if (maint) ((Maintainable) car).scheduleMaintenance();
-                    vehicle = car;
-                    break;
-
-                case "Truck":
-                    numWheels = Integer.parseInt(parts[6]);
-                    fuelLevel = Double.parseDouble(parts[7]);
-                    cargo = Double.parseDouble(parts[8]);
-                    maint = Boolean.parseBoolean(parts[9]);
-
-                    Truck truck = new Truck(id, model, maxSpeed, numWheels);
-                    if (fuelLevel > 0.0) ((FuelConsumable) truck).refuel(fuelLevel);
-                    if (cargo > 0.0) ((CargoCarrier) truck).loadCargo(cargo);
-                    if (maint) ((Maintainable) truck).scheduleMaintenance();
-                    vehicle = truck;
-                    break;
-
-                case "Bus":
-                    numWheels = Integer.parseInt(parts[6]);
-                    fuelLevel = Double.parseDouble(parts[7]);
-                    cargo = Double.parseDouble(parts[8]);
-                    passengers = Integer.parseInt(parts[9]);
-                    maint = Boolean.parseBoolean(parts[10]);
-
-                    Bus bus = new Bus(id, model, maxSpeed, numWheels);
-                    if (fuelLevel > 0.0) ((FuelConsumable) bus).refuel(fuelLevel);
-                    if (cargo > 0.0) ((CargoCarrier) bus).loadCargo(cargo);
-                    if (passengers > 0) ((PassengerCarrier) bus).boardPassengers(passengers);
-                    if (maint) ((Maintainable) bus).scheduleMaintenance();
-                    vehicle = bus;
-                    break;
-
-                case "Airplane":
-                    double maxAltitude = Double.parseDouble(parts[6]);
-                    fuelLevel = Double.parseDouble(parts[7]);
-                    cargo = Double.parseDouble(parts[8]);
-                    passengers = Integer.parseInt(parts[9]);
-                    maint = Boolean.parseBoolean(parts[10]);
-
-                    Airplane plane = new Airplane(id, model, maxSpeed, maxAltitude);
-                    if (fuelLevel > 0.0) ((FuelConsumable) plane).refuel(fuelLevel);
-                    if (cargo > 0.0) ((CargoCarrier) plane).loadCargo(cargo);
-                    if (passengers > 0) ((PassengerCarrier) plane).boardPassengers(passengers);
-                    if (maint) ((Maintainable) plane).scheduleMaintenance();
-                    vehicle = plane;
-                    break;
-
-                case "CargoShip":
-                    boolean hasSail = Boolean.parseBoolean(parts[6]);
-                    cargo = Double.parseDouble(parts[7]);
-                    fuelLevel = Double.parseDouble(parts[8]);
-                    maint = Boolean.parseBoolean(parts[9]);
-
-                    CargoShip ship = new CargoShip(id, model, maxSpeed, hasSail);
-                    if (!hasSail && fuelLevel > 0.0) ((FuelConsumable) ship).refuel(fuelLevel);
-                    if (cargo > 0.0) ((CargoCarrier) ship).loadCargo(cargo);
-                    if (maint) ((Maintainable) ship).scheduleMaintenance();
-                    vehicle = ship;
-                    break;
-            }
-
-            if (vehicle != null) {
-                vehicle.setMileage(totalMileage, mileageSinceMaintenance);
-            }
-
-            return vehicle;
-
-        } catch (Exception e) {
-            System.out.println("Error creating vehicle: " + e.getMessage() + " from data: " + data);
-            return null;
-        }
-    }
-}
+package transportation.management;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.io.*;
+import java.nio.file.Paths;
+import transportation.vehicles.*;
+import transportation.abstractclasses.Vehicle;
+import transportation.exceptions.*;
+import transportation.interfaces.*;
+import transportation.utility.*;
+import transportation.events.*;
+import transportation.persistence.CheckpointProgress;
+import transportation.persistence.Compression;
+import transportation.persistence.FleetCheckpointer;
+import transportation.persistence.FleetFiles;
+
+public class FleetManager implements VehicleObserver, AutoCloseable {
+    public enum BatchMode {
+        // Either every item is applied or none is; items already applied are undone on failure.
+        ALL_OR_NOTHING,
+        // Each item is applied independently and failures are only reported.
+        BEST_EFFORT
+    }
+
+    public static final String CSV_HEADER = "Type,Id,Model,MaxSpeed,TotalMileage,MileageSinceMaintenance,Field1,Field2,Field3,Field4,Field5";
+    private static final ThreadLocal<VehicleRowParser> ROW_PARSERS = ThreadLocal.withInitial(VehicleRowParser::new);
+
+    private List<Vehicle> fleet = new ArrayList<>();
+    // ID index: the map gives a slot in vehicleSlots; freed slots are reused.
+    private final VehicleIdMap slotsById = new VehicleIdMap();
+    private Vehicle[] vehicleSlots = new Vehicle[16];
+    private int slotsUsed;
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+    // Screens IDs during bulk ingest; created by the first one.
+    private IdBloomFilter idFilter;
+    private Set<String> distinctModels = new TreeSet<>();
+    private final MaintenanceTracker maintenanceTracker = new MaintenanceTracker();
+    private final Map<VehicleMetric, RangeIndex> rangeIndexes = new EnumMap<>(VehicleMetric.class);
+    private final Map<Class<?>, Set<Vehicle>> typeBuckets = new LinkedHashMap<>();
+    private volatile long version = 0;
+    private volatile FleetSnapshot snapshot;
+    private JourneyExecutor journeyExecutor;
+    private FleetCheckpointer checkpointer;
+    private FleetChangeFeed changeFeed;
+    private final List<FleetListener> listeners = new CopyOnWriteArrayList<>();
+
+    public FleetManager() {
+        for (VehicleMetric metric : VehicleMetric.values()) {
+            rangeIndexes.put(metric, new RangeIndex(metric));
+        }
+    }
+
+    public void addVehicle(Vehicle vehicle) throws InvalidOperationException {
+        if (slotsById.containsKey(vehicle.getId())) {
+            throw new InvalidOperationException("Vehicle with ID " + vehicle.getId() + " already exists");
+        }
+        fleet.add(vehicle);
+        distinctModels.add(vehicle.getModel());
+        register(vehicle);
+        version++;
+        for (FleetListener listener : listeners) {
+            listener.vehicleAdded(vehicle);
+        }
+    }
+
+    // Bulk form of addVehicle. A vehicle whose ID is already in the fleet, or earlier in the same
+    // batch, is not added; it is returned in the list instead of failing the call.
+    public List<Vehicle> addVehicles(Collection<? extends Vehicle> vehicles) {
+        int expected = slotsById.size() + vehicles.size();
+        if (idFilter == null || idFilter.capacity() < expected) {
+            rebuildIdFilter(2 * expected);
+        }
+        List<Vehicle> duplicates = new ArrayList<>();
+        notifyBatch(true);
+        try {
+            for (Vehicle vehicle : vehicles) {
+                if (isKnownId(vehicle.getId())) {
+                    duplicates.add(vehicle);
+                    continue;
+                }
+                fleet.add(vehicle);
+                distinctModels.add(vehicle.getModel());
+                register(vehicle);
+                // Bumped before the callbacks, as in addVehicle, so a listener's getSnapshot()
+                // already includes this vehicle.
+                version++;
+                for (FleetListener listener : listeners) {
+                    listener.vehicleAdded(vehicle);
+                }
+            }
+        } finally {
+            notifyBatch(false);
+        }
+        return duplicates;
+    }
+
+    // Brackets a bulk mutation for the listeners (see FleetListener.batchStarted) on the calling
+    // thread. Also used by the plans' apply() and by journey chunks on worker threads.
+    void notifyBatch(boolean started) {
+        for (FleetListener listener : listeners) {
+            if (started) listener.batchStarted();
+            else listener.batchFinished();
+        }
+    }
+
+    // The exact lookup only runs when the Bloom filter cannot rule the ID out.
+    private boolean isKnownId(String id) {
+        if (idFilter.count() >= idFilter.capacity()) {
+            rebuildIdFilter(2 * idFilter.capacity());
+        }
+        return idFilter.mightContain(id) && slotsById.containsKey(id);
+    }
+
+    private void rebuildIdFilter(int capacity) {
+        idFilter = new IdBloomFilter(Math.max(capacity, 1024));
+        for (int i = 0; i < slotsUsed; i++) {
+            if (vehicleSlots[i] != null) {
+                idFilter.add(vehicleSlots[i].getId());
+            }
+        }
+    }
+
+    public void removeVehicle(String id) throws InvalidOperationException {
+        Vehicle vehicleToRemove = getVehicleById(id);
+        if (vehicleToRemove != null) {
+            fleet.remove(vehicleToRemove);
+            unregister(vehicleToRemove);
+            rebuildDistinctModels();
+            version++;
+            for (FleetListener listener : listeners) {
+                listener.vehicleRemoved(vehicleToRemove);
+            }
+            return;
+        }
+
+        throw new InvalidOperationException("Vehicle with ID " + id + " not found");
+    }
+    
+    private void register(Vehicle vehicle) {
+        vehicle.setObserver(this);
+        index(vehicle);
+        typeBuckets.computeIfAbsent(vehicle.getClass(), k -> new LinkedHashSet<>()).add(vehicle);
+        maintenanceTracker.update(vehicle);
+        for (RangeIndex index : rangeIndexes.values()) {
+            index.update(vehicle);
+        }
+    }
+
+    private void unregister(Vehicle vehicle) {
+        if (vehicle.getObserver() == this) {
+            vehicle.setObserver(null);
+        }
+        unindex(vehicle);
+        Set<Vehicle> bucket = typeBuckets.get(vehicle.getClass());
+        if (bucket != null) {
+            bucket.remove(vehicle);
+        }
+        maintenanceTracker.remove(vehicle);
+        for (RangeIndex index : rangeIndexes.values()) {
+            index.remove(vehicle);
+        }
+    }
+
+    @Override
+    public void vehicleChanged(Vehicle vehicle, Vehicle.Change change) {
+        switch (change) {
+            case MILEAGE:
+                maintenanceTracker.update(vehicle);
+                rangeIndexes.get(VehicleMetric.TOTAL_MILEAGE).update(vehicle);
+                break;
+            case MAINTENANCE:
+                maintenanceTracker.update(vehicle);
+                break;
+            case FUEL:
+                rangeIndexes.get(VehicleMetric.FUEL_LEVEL).update(vehicle);
+                break;
+            case CARGO:
+                rangeIndexes.get(VehicleMetric.CURRENT_CARGO).update(vehicle);
+                break;
+            case PASSENGERS:
+                rangeIndexes.get(VehicleMetric.AVAILABLE_SEATS).update(vehicle);
+                break;
+        }
+        for (FleetListener listener : listeners) {
+            listener.vehicleChanged(vehicle, change);
+        }
+    }
+
+    // Typed, batched feed of this fleet's changes; created and attached on first use, and again
+    // after the previous feed was closed. Synchronized so racing callers share one dispatcher.
+    public synchronized FleetChangeFeed changeFeed() {
+        if (changeFeed == null || changeFeed.isClosed()) {
+            changeFeed = new FleetChangeFeed(this);
+            addFleetListener(changeFeed);
+        }
+        return changeFeed;
+    }
+
+    public void addFleetListener(FleetListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeFleetListener(FleetListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void rebuildDistinctModels() {
+        distinctModels.clear();
+        for (Vehicle v : fleet) {
+            distinctModels.add(v.getModel());
+        }
+    }
+
+    public Vehicle getVehicleById(String id) {
+        int slot = slotsById.get(id);
+        return slot == VehicleIdMap.ABSENT ? null : vehicleSlots[slot];
+    }
+
+    private void index(Vehicle vehicle) {
+        int slot;
+        if (freeSlotCount > 0) {
+            slot = freeSlots[--freeSlotCount];
+        } else {
+            if (slotsUsed == vehicleSlots.length) {
+                vehicleSlots = Arrays.copyOf(vehicleSlots, slotsUsed * 2);
+            }
+            slot = slotsUsed++;
+        }
+        vehicleSlots[slot] = vehicle;
+        if (idFilter != null) {
+            idFilter.add(vehicle.getId());
+        }
+        int previous = slotsById.put(vehicle.getId(), slot);
+        if (previous != VehicleIdMap.ABSENT) {
+            releaseSlot(previous);
+        }
+    }
+
+    // Only drops the ID if it still maps to this vehicle.
+    private void unindex(Vehicle vehicle) {
+        String id = vehicle.getId();
+        int slot = slotsById.get(id);
+        if (slot != VehicleIdMap.ABSENT && vehicleSlots[slot] == vehicle) {
+            slotsById.remove(id);
+            releaseSlot(slot);
+        }
+    }
+
+    private void releaseSlot(int slot) {
+        vehicleSlots[slot] = null;
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    // Mutable copy, kept for callers that edit the returned list. Read-only callers should use getSnapshot().
+    public List<Vehicle> getFleet() {
+        return new ArrayList<>(fleet);
+    }
+
+    // Copy-on-write per version: the array is only rebuilt after the fleet has been added to,
+    // removed from, reordered or reloaded.
+    public FleetSnapshot getSnapshot() {
+        FleetSnapshot current = snapshot;
+        long currentVersion = version;
+        if (current != null && current.getVersion() == currentVersion) {
+            return current;
+        }
+        current = new FleetSnapshot(currentVersion, fleet.toArray(new Vehicle[0]));
+        snapshot = current;
+        return current;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return fleet.size();
+    }
+    
+    public Set<String> getDistinctModels() {
+        return distinctModels;
+    }
+
+    // Range queries over the secondary indexes, both bounds inclusive, ascending by the metric.
+    public List<Vehicle> getVehiclesInRange(VehicleMetric metric, double min, double max) {
+        return rangeIndexes.get(metric).range(min, max);
+    }
+
+    public List<Vehicle> getVehiclesByMileageRange(double min, double max) {
+        return getVehiclesInRange(VehicleMetric.TOTAL_MILEAGE, min, max);
+    }
+
+    public List<Vehicle> getVehiclesBySpeedRange(double min, double max) {
+        return getVehiclesInRange(VehicleMetric.MAX_SPEED, min, max);
+    }
+
+    public List<Vehicle> getVehiclesByFuelRange(double min, double max) {
+        return getVehiclesInRange(VehicleMetric.FUEL_LEVEL, min, max);
+    }
+
+    public List<Vehicle> getVehiclesByCargoRange(double min, double max) {
+        return getVehiclesInRange(VehicleMetric.CURRENT_CARGO, min, max);
+    }
+
+    public List<Vehicle> getVehiclesWithFuelBelow(double level) {
+        return rangeIndexes.get(VehicleMetric.FUEL_LEVEL).below(level);
+    }
+
+    RangeIndex getRangeIndex(VehicleMetric metric) {
+        return rangeIndexes.get(metric);
+    }
+
+    // Buckets hold vehicles of one concrete class; a type or capability maps to every bucket it covers.
+    List<Set<Vehicle>> getTypeBuckets(Class<?> type) {
+        List<Set<Vehicle>> result = new ArrayList<>();
+        for (Map.Entry<Class<?>, Set<Vehicle>> entry : typeBuckets.entrySet()) {
+            if (type.isAssignableFrom(entry.getKey())) {
+                result.add(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    public int countByType(Class<?> type) {
+        int count = 0;
+        for (Set<Vehicle> bucket : getTypeBuckets(type)) {
+            count += bucket.size();
+        }
+        return count;
+    }
+
+    List<Vehicle> getFleetView() {
+        return Collections.unmodifiableList(fleet);
+    }
+
+    public FleetQuery query() {
+        return new FleetQuery(this);
+    }
+
+    public void startAllJourneys(double distance) {
+        JourneyResult result = executeJourneys(distance);
+        for (int i : result.failedIndexes()) {
+            EventSinks.get().publish(FleetEvent.Type.MOVE_FAILED, result.getVehicle(i), distance, result.getMessage(i));
+        }
+    }
+
+    // Moves the fleet on the shared worker pool and returns per-vehicle outcomes without printing them.
+    public JourneyResult executeJourneys(double distance) {
+        return getJourneyExecutor().execute(getSnapshot().asList(), distance, this::notifyBatch);
+    }
+
+    private JourneyExecutor getJourneyExecutor() {
+        if (journeyExecutor == null) {
+            journeyExecutor = new JourneyExecutor();
+        }
+        return journeyExecutor;
+    }
+
+    // Drains each tank for distance; vehicles without enough fuel are left out of the total.
+    public double getTotalFuelConsumption(double distance) {
+        if (distance < 0) throw new IllegalArgumentException("Distance cannot be negative");
+        double totalFuel = 0;
+        for (Vehicle v : fleet) {
+            if (v instanceof FuelConsumable) {
+                try {
+                    FuelConsumable f = (FuelConsumable) v;
+                    totalFuel += f.consumeFuel(distance);
+                } catch (Exception e) {
+                    EventSinks.get().publish(FleetEvent.Type.FUEL_ESTIMATE_FAILED, v, distance, e.getMessage());
+                }
+            }
+        }
+        return totalFuel;
+    }
+
+    // The total getTotalFuelConsumption would return, but only projected: no tank is drained.
+    public double projectTotalFuelConsumption(double distance) {
+        if (distance < 0) throw new IllegalArgumentException("Distance cannot be negative");
+        return new FuelProjector(getSnapshot()).evaluate(distance).getFeasibleRequired(0);
+    }
+
+    public FuelProjection projectFuelConsumption(double... distances) {
+        return new FuelProjector(getSnapshot()).evaluate(distances);
+    }
+
+    public JourneyTimeMatrix estimateJourneyTimes(double... distances) {
+        return new JourneyTimeEstimator(getSnapshot()).evaluate(distances);
+    }
+
+    // Plans where each shipment should go without loading anything; call apply() on the result to load.
+    public CargoAssignment planCargoAssignment(double[] weights, CargoAssignmentEngine.Strategy strategy, boolean partitionByType) {
+        return new CargoAssignmentEngine(this).plan(weights, strategy, partitionByType);
+    }
+
+    public PassengerAllocationPlanner passengerPlanner() {
+        return new PassengerAllocationPlanner(this);
+    }
+
+    // Only the vehicles currently in the due queue are touched.
+    public void maintainAll() {
+        for (Vehicle vehicle : maintenanceTracker.getDueVehicles()) {
+            ((Maintainable) vehicle).performMaintenance();
+        }
+    }
+
+    public List<Vehicle> searchByType(Class<?> type) {
+        List<Vehicle> result = new ArrayList<>();
+        for (Vehicle vehicle : fleet) {
+            if (type.isInstance(vehicle)) {
+                result.add(vehicle);
+            }
+        }
+        return result;
+    }
+
+    public void sortFleetByEfficiency() {
+        Collections.sort(fleet);
+        version++;
+    }
+    
+    public void sortFleetByEfficiencyDescending() {
+        Collections.sort(fleet, new EfficiencyComparator());
+        version++;
+    }
+    
+    public void sortFleetBySpeed() {
+        Collections.sort(fleet, new MaxSpeedComparator());
+        version++;
+    }
+
+    public void sortFleetByModelName() {
+        Collections.sort(fleet, new ModelNameComparator());
+        version++;
+    }
+
+    public void sortFleetByTotalMileage() {
+        Collections.sort(fleet, new TotalMileageComparator());
+        version++;
+    }
+
+      public Vehicle getFastestVehicle() {
+        if (fleet.isEmpty()) return null;
+        return Collections.max(fleet, Collections.reverseOrder(new MaxSpeedComparator()));
+    }
+    
+    public Vehicle getLeastEfficientVehicle() {
+        if (fleet.isEmpty()) return null;
+        return Collections.min(fleet);
+    }
+
+    public String generateReport() {
+        StringBuilder report = new StringBuilder();
+        report.append("FLEET REPORT\n");
+        report.append("Total vehicles: ").append(fleet.size()).append("\n");
+
+        int cars = countByType(Car.class);
+        int trucks = countByType(Truck.class);
+        int buses = countByType(Bus.class);
+        int airplanes = countByType(Airplane.class);
+        int cargoShips = countByType(CargoShip.class);
+
+        report.append("Cars: ").append(cars).append("\n");
+        report.append("Trucks: ").append(trucks).append("\n");
+        report.append("Buses: ").append(buses).append("\n");
+        report.append("Airplanes: ").append(airplanes).append("\n");
+        report.append("CargoShips: ").append(cargoShips).append("\n");
+        
+        report.append("Distinct Vehicle Models: ").append(distinctModels.size()).append("\n");
+        
+        Vehicle fastest = getFastestVehicle();
+        if (fastest != null) {
+            report.append("Fastest Vehicle (ID/Model/Speed): ").append(fastest.getId()).append("/").append(fastest.getModel()).append("/").append(String.format("%.1f km/h", fastest.getMaxSpeed())).append("\n");
+        }
+        
+        Vehicle leastEfficient = getLeastEfficientVehicle();
+        if (leastEfficient != null) {
+            report.append("Least Efficient Vehicle (ID/Model/Efficiency): ").append(leastEfficient.getId()).append("/").append(leastEfficient.getModel()).append("/").append(String.format("%.2f km/l", leastEfficient.getFuelEfficiency())).append("\n");
+        }
+
+
+        double totalEfficiency = 0;
+        int vehicleCount = 0;
+        for (Vehicle v : fleet) {
+            totalEfficiency += v.getFuelEfficiency();
+            vehicleCount++;
+        }
+        double avgEfficiency = vehicleCount > 0 ? totalEfficiency / vehicleCount : 0;
+        report.append("Average fuel efficiency: ").append(String.format("%.2f km/l", avgEfficiency)).append("\n");
+
+        double totalMileage = 0;
+        for (Vehicle v : fleet) {
+            totalMileage += v.getTotalMileage(); 
+        }
+        report.append("Total mileage: ").append(String.format("%.1f km", totalMileage)).append("\n");
+
+        long maintenanceNeeded = maintenanceTracker.size();
+        report.append("Vehicles needing maintenance: ").append(maintenanceNeeded).append("\n");
+
+        return report.toString();
+    }
+
+    // Most overdue first.
+    public List<Vehicle> getVehiclesNeedingMaintenance() {
+        return maintenanceTracker.getDueVehicles();
+    }
+
+    public int getMaintenanceDueCount() {
+        return maintenanceTracker.size();
+    }
+
+    public Vehicle getMostOverdueVehicle() {
+        return maintenanceTracker.peekMostOverdue();
+    }
+
+    // Batch operations: item i applies amounts[i] to the vehicle with ids[i]. The result holds one
+    // OperationStatus code per item, in input order.
+    public byte[] loadCargo(String[] ids, double[] weights, BatchMode mode) {
+        checkBatch(ids.length, weights.length);
+        return applyBatch(ids, CargoCarrier.class, mode, new BatchOperation() {
+            public int apply(Vehicle v, int i) { return ((CargoCarrier) v).tryLoadCargo(weights[i]); }
+            public void undo(Vehicle v, int i) { ((CargoCarrier) v).tryUnloadCargo(weights[i]); }
+        });
+    }
+
+    public byte[] unloadCargo(String[] ids, double[] weights, BatchMode mode) {
+        checkBatch(ids.length, weights.length);
+        return applyBatch(ids, CargoCarrier.class, mode, new BatchOperation() {
+            public int apply(Vehicle v, int i) { return ((CargoCarrier) v).tryUnloadCargo(weights[i]); }
+            public void undo(Vehicle v, int i) { ((CargoCarrier) v).tryLoadCargo(weights[i]); }
+        });
+    }
+
+    public byte[] boardPassengers(String[] ids, int[] counts, BatchMode mode) {
+        checkBatch(ids.length, counts.length);
+        return applyBatch(ids, PassengerCarrier.class, mode, new BatchOperation() {
+            public int apply(Vehicle v, int i) { return ((PassengerCarrier) v).tryBoardPassengers(counts[i]); }
+            public void undo(Vehicle v, int i) { ((PassengerCarrier) v).tryDisembarkPassengers(counts[i]); }
+        });
+    }
+
+    public byte[] disembarkPassengers(String[] ids, int[] counts, BatchMode mode) {
+        checkBatch(ids.length, counts.length);
+        return applyBatch(ids, PassengerCarrier.class, mode, new BatchOperation() {
+            public int apply(Vehicle v, int i) { return ((PassengerCarrier) v).tryDisembarkPassengers(counts[i]); }
+            public void undo(Vehicle v, int i) { ((PassengerCarrier) v).tryBoardPassengers(counts[i]); }
+        });
+    }
+
+    private interface BatchOperation {
+        int apply(Vehicle vehicle, int item);
+        void undo(Vehicle vehicle, int item);
+    }
+
+    private static void checkBatch(int ids, int amounts) {
+        if (ids != amounts) {
+            throw new IllegalArgumentException("Expected one amount per vehicle ID, got " + ids + " IDs and " + amounts + " amounts");
+        }
+    }
+
+    private byte[] applyBatch(String[] ids, Class<?> capability, BatchMode mode, BatchOperation op) {
+        notifyBatch(true);
+        try {
+            return applyEach(ids, capability, mode, op);
+        } finally {
+            notifyBatch(false);
+        }
+    }
+
+    private byte[] applyEach(String[] ids, Class<?> capability, BatchMode mode, BatchOperation op) {
+        int n = ids.length;
+        byte[] statuses = new byte[n];
+        Vehicle[] targets = new Vehicle[n];
+        boolean resolved = true;
+        for (int i = 0; i < n; i++) {
+            Vehicle v = getVehicleById(ids[i]);
+            if (v == null) {
+                statuses[i] = OperationStatus.NOT_FOUND;
+                resolved = false;
+            } else if (!capability.isInstance(v)) {
+                statuses[i] = OperationStatus.NOT_SUPPORTED;
+                resolved = false;
+            } else {
+                targets[i] = v;
+            }
+        }
+
+        if (mode == BatchMode.BEST_EFFORT) {
+            for (int i = 0; i < n; i++) {
+                if (targets[i] != null) {
+                    statuses[i] = (byte) op.apply(targets[i], i);
+                }
+            }
+            return statuses;
+        }
+
+        // All or nothing: nothing is touched unless every item resolved, and a failing item
+        // rolls back the ones before it in reverse order.
+        int failed = -1;
+        if (resolved) {
+            for (int i = 0; i < n && failed < 0; i++) {
+                int status = op.apply(targets[i], i);
+                if (status != OperationStatus.OK) {
+                    statuses[i] = (byte) status;
+                    failed = i;
+                }
+            }
+            if (failed < 0) return statuses;
+            for (int i = failed - 1; i >= 0; i--) {
+                op.undo(targets[i], i);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (targets[i] != null && i != failed) {
+                statuses[i] = OperationStatus.ABORTED;
+            }
+        }
+        return statuses;
+    }
+
+    public void saveToFile(String filename) {
+        saveToFile(filename, Compression.NONE);
+    }
+
+    // Using try-catch-finally for manual resource closing.
+    public void saveToFile(String filename, Compression compression) {
+        PrintWriter writer = null;
+        try {
+            writer = new PrintWriter(FleetFiles.openWriter(filename, compression));
+            writer.println(CSV_HEADER);
+            for (Vehicle vehicle : fleet) {
+                writer.println(vehicle.toString()); 
+            }
+            EventSinks.get().publish(FleetEvent.Type.FLEET_SAVED, null, 0, filename);
+        } catch (IOException e) {
+            EventSinks.get().publish(FleetEvent.Type.SAVE_FAILED, null, 0, e.getMessage());
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+
+    // Non-blocking save: the fleet is copied column-wise on this thread and written in the
+    // background. The returned progress completes once the file has been renamed into place.
+    public CheckpointProgress saveToFileAsync(String filename) {
+        if (checkpointer == null) {
+            checkpointer = new FleetCheckpointer();
+        }
+        return checkpointer.checkpoint(getSnapshot(), Paths.get(filename));
+    }
+
+    // Shuts down the journey pool, the checkpoint thread and the change feed, if any was started.
+    // Saves already requested still complete. The manager stays usable; the helpers are recreated
+    // on next use.
+    @Override
+    public void close() {
+        if (journeyExecutor != null) {
+            journeyExecutor.close();
+            journeyExecutor = null;
+        }
+        if (checkpointer != null) {
+            checkpointer.close();
+            checkpointer = null;
+        }
+        FleetChangeFeed feed;
+        synchronized (this) {
+            feed = changeFeed;
+            changeFeed = null;
+        }
+        // Closed outside the lock: close() waits for the dispatcher to drain.
+        if (feed != null) {
+            feed.close();
+        }
+    }
+
+    // Using try-catch-finally for manual resource closing. Compressed files are detected from
+    // their first bytes.
+    public void loadFromFile(String filename) {
+        BufferedReader reader = null;
+        notifyBatch(true);
+        List<Vehicle> previous = new ArrayList<>(fleet);
+        for (Vehicle v : previous) {
+            unregister(v);
+        }
+        fleet.clear();
+        slotsById.clear();
+        vehicleSlots = new Vehicle[16];
+        slotsUsed = 0;
+        freeSlotCount = 0;
+        // Sized from the file at roughly 40 bytes a row; isKnownId grows it if that falls short.
+        rebuildIdFilter((int) Math.min(1 << 26, new File(filename).length() / 40));
+        distinctModels.clear();
+        maintenanceTracker.clear();
+        typeBuckets.clear();
+        for (RangeIndex index : rangeIndexes.values()) {
+            index.clear();
+        }
+        version++;
+        for (Vehicle v : previous) {
+            for (FleetListener listener : listeners) {
+                listener.vehicleRemoved(v);
+            }
+        }
+
+        try {
+            reader = FleetFiles.openReader(filename);
+            String line = reader.readLine(); 
+            VehicleRowParser parser = new VehicleRowParser();
+            List<String> duplicates = new ArrayList<>();
+            while ((line = reader.readLine()) != null) {
+                Vehicle vehicle = parser.parse(line);
+                if (vehicle != null && isKnownId(vehicle.getId())) {
+                    // The first row with an ID wins, as with addVehicle.
+                    duplicates.add(vehicle.getId());
+                } else if (vehicle != null) {
+                    fleet.add(vehicle);
+                    distinctModels.add(vehicle.getModel());
+                    register(vehicle);
+                    version++;
+                    for (FleetListener listener : listeners) {
+                        listener.vehicleAdded(vehicle);
+                    }
+                } else if (parser.getError() != null) {
+                    EventSinks.get().publish(parser.getError(), null, 0, parser.getErrorMessage());
+                }
+            }
+            if (!duplicates.isEmpty()) {
+                String shown = String.join(", ", duplicates.subList(0, Math.min(10, duplicates.size())));
+                EventSinks.get().publish(FleetEvent.Type.DUPLICATES_SKIPPED, null, 0,
+                    duplicates.size() + " in " + filename + " (" + shown + (duplicates.size() > 10 ? ", ...)" : ")"));
+            }
+            EventSinks.get().publish(FleetEvent.Type.FLEET_LOADED, null, 0, filename);
+        } catch (FileNotFoundException e) {
+            EventSinks.get().publish(FleetEvent.Type.FILE_NOT_FOUND, null, 0, filename);
+        } catch (IOException e) {
+            EventSinks.get().publish(FleetEvent.Type.LOAD_FAILED, null, 0, e.getMessage());
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    EventSinks.get().publish(FleetEvent.Type.CLOSE_FAILED, null, 0, e.getMessage());
+                }
+            }
+            notifyBatch(false);
+        }
+    }
+
+    // Parses one line in the saveToFile format; returns null for short or unknown lines.
+    public static Vehicle createVehicleFromString(String data) throws InvalidOperationException {
+        VehicleRowParser parser = ROW_PARSERS.get();
+        Vehicle vehicle = parser.parse(data);
+        if (parser.getError() == FleetEvent.Type.PARSE_FAILED) {
+            throw new NumberFormatException(parser.getErrorMessage());
+        }
+        if (parser.getError() != null) {
+            EventSinks.get().publish(parser.getError(), null, 0, parser.getErrorMessage());
+        }
+        return vehicle;
+    }
+}
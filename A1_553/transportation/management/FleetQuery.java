@@ -0,0 +1,254 @@
+package transportation.management;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import transportation.abstractclasses.Vehicle;
+import transportation.utility.VehicleMetric;
+
+// Small query API over a FleetManager: filter by type, capability and numeric ranges, then
+// project, aggregate, order and limit. Obtain one with FleetManager.query().
+public class FleetQuery {
+    public enum AccessPath {
+        FULL_SCAN,
+        TYPE_BUCKETS,
+        RANGE_INDEX
+    }
+
+    private static final class RangeFilter {
+        final VehicleMetric metric;
+        final double min, max;
+
+        RangeFilter(VehicleMetric metric, double min, double max) {
+            this.metric = metric;
+            this.min = min;
+            this.max = max;
+        }
+
+        boolean test(Vehicle v) {
+            if (!metric.appliesTo(v)) return false;
+            double value = metric.extract(v);
+            return value >= min && value <= max;
+        }
+    }
+
+    private final FleetManager manager;
+    private final List<Class<?>> types = new ArrayList<>();
+    private final List<RangeFilter> ranges = new ArrayList<>();
+    private final List<Predicate<Vehicle>> predicates = new ArrayList<>();
+    private Comparator<Vehicle> order;
+    private int limit = Integer.MAX_VALUE;
+
+    private AccessPath plannedPath;
+    private Class<?> plannedType;
+    private RangeFilter plannedRange;
+    private int plannedCost;
+
+    FleetQuery(FleetManager manager) {
+        this.manager = manager;
+    }
+
+    // Concrete class or capability interface, e.g. Truck.class or CargoCarrier.class.
+    public FleetQuery ofType(Class<?> type) {
+        types.add(type);
+        return this;
+    }
+
+    // Inclusive range; vehicles the metric does not apply to (e.g. cargo on a Car) are excluded.
+    public FleetQuery where(VehicleMetric metric, double min, double max) {
+        ranges.add(new RangeFilter(metric, min, max));
+        return this;
+    }
+
+    public FleetQuery where(Predicate<Vehicle> predicate) {
+        predicates.add(predicate);
+        return this;
+    }
+
+    public FleetQuery orderBy(Comparator<Vehicle> comparator) {
+        this.order = comparator;
+        return this;
+    }
+
+    // Vehicles the metric does not apply to (a Car under CURRENT_CARGO) sort last either way.
+    public FleetQuery orderBy(VehicleMetric metric, boolean descending) {
+        Comparator<Vehicle> byValue = Comparator.comparingDouble(metric::extract);
+        Comparator<Vehicle> applicableFirst = Comparator.comparing(v -> !metric.appliesTo(v));
+        return orderBy(applicableFirst.thenComparing((x, y) -> {
+            if (!metric.appliesTo(x)) return 0;
+            return descending ? byValue.compare(y, x) : byValue.compare(x, y);
+        }));
+    }
+
+    public FleetQuery limit(int limit) {
+        if (limit < 0) throw new IllegalArgumentException("Limit cannot be negative");
+        this.limit = limit;
+        return this;
+    }
+
+    // Picks the access path with the fewest candidate rows. Range counts are bounded by the best
+    // cost found so far, so a wide range never costs more to estimate than the path it loses to.
+    private void plan() {
+        plannedPath = AccessPath.FULL_SCAN;
+        plannedType = null;
+        plannedRange = null;
+        plannedCost = manager.getFleetView().size();
+
+        for (Class<?> type : types) {
+            int cost = manager.countByType(type);
+            if (cost < plannedCost) {
+                plannedPath = AccessPath.TYPE_BUCKETS;
+                plannedType = type;
+                plannedCost = cost;
+            }
+        }
+        for (RangeFilter range : ranges) {
+            int cost = manager.getRangeIndex(range.metric).countInRange(range.min, range.max, plannedCost);
+            if (cost < plannedCost) {
+                plannedPath = AccessPath.RANGE_INDEX;
+                plannedType = null;
+                plannedRange = range;
+                plannedCost = cost;
+            }
+        }
+    }
+
+    private Iterable<Vehicle> source() {
+        switch (plannedPath) {
+            case TYPE_BUCKETS:
+                List<Vehicle> candidates = new ArrayList<>(plannedCost);
+                for (Set<Vehicle> bucket : manager.getTypeBuckets(plannedType)) {
+                    candidates.addAll(bucket);
+                }
+                return candidates;
+            case RANGE_INDEX:
+                return manager.getRangeIndex(plannedRange.metric).range(plannedRange.min, plannedRange.max);
+            default:
+                return manager.getFleetView();
+        }
+    }
+
+    private boolean matches(Vehicle v) {
+        for (Class<?> type : types) {
+            if (!type.isInstance(v)) return false;
+        }
+        for (RangeFilter range : ranges) {
+            if (range != plannedRange && !range.test(v)) return false;
+        }
+        for (Predicate<Vehicle> predicate : predicates) {
+            if (!predicate.test(v)) return false;
+        }
+        return true;
+    }
+
+    public String explain() {
+        plan();
+        StringBuilder sb = new StringBuilder("Access path: ").append(plannedPath);
+        if (plannedType != null) sb.append(" (").append(plannedType.getSimpleName()).append(")");
+        if (plannedRange != null) sb.append(" (").append(plannedRange.metric).append(")");
+        sb.append(", estimated rows: ").append(plannedCost);
+        return sb.toString();
+    }
+
+    public List<Vehicle> list() {
+        plan();
+        if (order == null) {
+            List<Vehicle> result = new ArrayList<>();
+            if (limit == 0) return result;
+            for (Vehicle v : source()) {
+                if (matches(v)) {
+                    result.add(v);
+                    if (result.size() >= limit) break;
+                }
+            }
+            return result;
+        }
+        if (limit == Integer.MAX_VALUE) {
+            List<Vehicle> result = new ArrayList<>();
+            for (Vehicle v : source()) {
+                if (matches(v)) result.add(v);
+            }
+            result.sort(order);
+            return result;
+        }
+        return topK();
+    }
+
+    // Bounded heap keeps only the best `limit` rows: O(N log limit) instead of a full sort.
+    private List<Vehicle> topK() {
+        List<Vehicle> result = new ArrayList<>();
+        if (limit == 0) return result;
+        PriorityQueue<Vehicle> heap = new PriorityQueue<>(Math.min(limit, 1024) + 1, order.reversed());
+        for (Vehicle v : source()) {
+            if (!matches(v)) continue;
+            if (heap.size() < limit) {
+                heap.add(v);
+            } else if (order.compare(v, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(v);
+            }
+        }
+        result.addAll(heap);
+        result.sort(order);
+        return result;
+    }
+
+    public <T> List<T> project(Function<Vehicle, T> projection) {
+        List<Vehicle> rows = list();
+        List<T> result = new ArrayList<>(rows.size());
+        for (Vehicle v : rows) {
+            result.add(projection.apply(v));
+        }
+        return result;
+    }
+
+    public long count() {
+        return stats(null).getCount();
+    }
+
+    public double sum(VehicleMetric metric) {
+        return stats(metric).getSum();
+    }
+
+    public double average(VehicleMetric metric) {
+        return stats(metric).getAverage();
+    }
+
+    public double min(VehicleMetric metric) {
+        return stats(metric).getMin();
+    }
+
+    public double max(VehicleMetric metric) {
+        return stats(metric).getMax();
+    }
+
+    // Filter and aggregate in a single pass over the chosen access path. When the query is ordered
+    // and limited, the aggregate covers exactly the rows list() would return.
+    public DoubleSummaryStatistics stats(VehicleMetric metric) {
+        DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+        if (order != null && limit != Integer.MAX_VALUE) {
+            for (Vehicle v : list()) {
+                accept(stats, metric, v);
+            }
+            return stats;
+        }
+        plan();
+        long taken = 0;
+        for (Vehicle v : source()) {
+            if (taken >= limit) break;
+            if (matches(v)) {
+                accept(stats, metric, v);
+                taken++;
+            }
+        }
+        return stats;
+    }
+
+    private static void accept(DoubleSummaryStatistics stats, VehicleMetric metric, Vehicle v) {
+        if (metric == null) {
+            stats.accept(0);
+        } else if (metric.appliesTo(v)) {
+            stats.accept(metric.extract(v));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package transportation.management;
+
+import java.util.*;
+import transportation.abstractclasses.Vehicle;
+
+// Immutable view of the fleet's membership at one version. FleetManager hands out the same
+// snapshot until the fleet is structurally changed, so obtaining one is O(1) and iterating it
+// is safe while other threads add or remove vehicles.
+public final class FleetSnapshot implements Iterable<Vehicle> {
+    private final long version;
+    private final Vehicle[] vehicles;
+    private final List<Vehicle> view;
+
+    FleetSnapshot(long version, Vehicle[] vehicles) {
+        this.version = version;
+        this.vehicles = vehicles;
+        this.view = Collections.unmodifiableList(Arrays.asList(vehicles));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return vehicles.length;
+    }
+
+    public boolean isEmpty() {
+        return vehicles.length == 0;
+    }
+
+    public Vehicle get(int index) {
+        return vehicles[index];
+    }
+
+    public List<Vehicle> asList() {
+        return view;
+    }
+
+    @Override
+    public Iterator<Vehicle> iterator() {
+        return view.iterator();
+    }
+}
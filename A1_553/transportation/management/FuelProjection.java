@@ -0,0 +1,48 @@
+package transportation.management;
+
+// Result of evaluating a fleet against several candidate distances, one column per distance.
+public class FuelProjection {
+    private final double[] distances;
+    private final double[] totalRequired;
+    private final double[] feasibleRequired;
+    private final int[] feasibleCount;
+    private final int vehicleCount;
+
+    FuelProjection(double[] distances, double[] totalRequired, double[] feasibleRequired, int[] feasibleCount, int vehicleCount) {
+        this.distances = distances;
+        this.totalRequired = totalRequired;
+        this.feasibleRequired = feasibleRequired;
+        this.feasibleCount = feasibleCount;
+        this.vehicleCount = vehicleCount;
+    }
+
+    public int size() {
+        return distances.length;
+    }
+
+    public double getDistance(int i) {
+        return distances[i];
+    }
+
+    // Fuel the whole fleet would need for distance i, whether or not every tank holds enough.
+    public double getTotalRequired(int i) {
+        return totalRequired[i];
+    }
+
+    // Fuel needed by the vehicles that can actually complete distance i.
+    public double getFeasibleRequired(int i) {
+        return feasibleRequired[i];
+    }
+
+    public int getFeasibleCount(int i) {
+        return feasibleCount[i];
+    }
+
+    public int getInfeasibleCount(int i) {
+        return vehicleCount - feasibleCount[i];
+    }
+
+    public int getVehicleCount() {
+        return vehicleCount;
+    }
+}
@@ -0,0 +1,85 @@
+package transportation.management;
+
+import java.util.stream.IntStream;
+import transportation.abstractclasses.Vehicle;
+import transportation.interfaces.FuelConsumable;
+
+// Batch fuel evaluator. The fleet's fuel state is copied once into primitive arrays (fuel per km
+// and tank level), then every candidate distance is evaluated with a branch-free loop over those
+// arrays. Nothing is consumed and no exceptions are thrown.
+//
+// Fuel per km is taken as fuelRequired(1.0), so a projected amount can differ from a single
+// fuelRequired(distance) call in the last bit.
+public class FuelProjector {
+    private static final long PARALLEL_THRESHOLD = 1L << 20;
+
+    private final Vehicle[] vehicles;
+    private final double[] fuelPerKm;
+    private final double[] fuelLevel;
+
+    public FuelProjector(Iterable<Vehicle> fleet) {
+        int count = 0;
+        for (Vehicle v : fleet) {
+            if (v instanceof FuelConsumable) count++;
+        }
+        vehicles = new Vehicle[count];
+        fuelPerKm = new double[count];
+        fuelLevel = new double[count];
+        int i = 0;
+        for (Vehicle v : fleet) {
+            if (v instanceof FuelConsumable) {
+                FuelConsumable f = (FuelConsumable) v;
+                vehicles[i] = v;
+                fuelPerKm[i] = f.fuelRequired(1.0);
+                fuelLevel[i] = f.getFuelLevel();
+                i++;
+            }
+        }
+    }
+
+    public int size() {
+        return vehicles.length;
+    }
+
+    public Vehicle getVehicle(int i) {
+        return vehicles[i];
+    }
+
+    public boolean isFeasible(int vehicle, double distance) {
+        return distance >= 0 && fuelLevel[vehicle] >= fuelPerKm[vehicle] * distance;
+    }
+
+    public FuelProjection evaluate(double... distances) {
+        int d = distances.length;
+        double[] total = new double[d];
+        double[] feasible = new double[d];
+        int[] feasibleCount = new int[d];
+
+        IntStream columns = IntStream.range(0, d);
+        if ((long) d * vehicles.length >= PARALLEL_THRESHOLD && d > 1) {
+            columns = columns.parallel();
+        }
+        columns.forEach(j -> evaluateColumn(distances[j], j, total, feasible, feasibleCount));
+        return new FuelProjection(distances.clone(), total, feasible, feasibleCount, vehicles.length);
+    }
+
+    private void evaluateColumn(double distance, int j, double[] total, double[] feasible, int[] feasibleCount) {
+        if (distance < 0) {
+            total[j] = Double.NaN;
+            return;
+        }
+        double sumAll = 0, sumFeasible = 0;
+        int ok = 0;
+        double[] rate = fuelPerKm, level = fuelLevel;
+        for (int i = 0; i < rate.length; i++) {
+            double need = rate[i] * distance;
+            int fits = level[i] >= need ? 1 : 0;
+            sumAll += need;
+            sumFeasible += need * fits;
+            ok += fits;
+        }
+        total[j] = sumAll;
+        feasible[j] = sumFeasible;
+        feasibleCount[j] = ok;
+    }
+}
@@ -0,0 +1,135 @@
+package transportation.management;
+
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.*;
+import transportation.abstractclasses.Vehicle;
+import transportation.utility.OperationStatus;
+
+// Runs move(distance) for a whole fleet on a worker pool and records a structured outcome per
+// vehicle. Small fleets are moved on the calling thread, where a pool would only add overhead.
+public class JourneyExecutor implements AutoCloseable {
+    private static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    private final ExecutorService workers;
+    private final int parallelism;
+    private final int chunkSize;
+    private final ExecutorService logger;
+    private final PrintStream log;
+
+    public JourneyExecutor() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE, null);
+    }
+
+    // When log is non-null, failures are written to it from a background thread after each run.
+    public JourneyExecutor(int parallelism, int chunkSize, PrintStream log) {
+        if (parallelism <= 0) throw new IllegalArgumentException("Parallelism must be positive");
+        if (chunkSize <= 0) throw new IllegalArgumentException("Chunk size must be positive");
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.workers = Executors.newFixedThreadPool(parallelism, daemon("journey-worker"));
+        this.log = log;
+        this.logger = log != null ? Executors.newSingleThreadExecutor(daemon("journey-log")) : null;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    // Called with true before and false after each chunk, on the thread that runs it.
+    interface ChunkBracket {
+        void chunk(boolean started);
+    }
+
+    public JourneyResult execute(List<Vehicle> vehicles, double distance) {
+        return execute(vehicles, distance, null);
+    }
+
+    // FleetManager passes its notifyBatch, so a chunk's mutations reach listeners as one batch.
+    JourneyResult execute(List<Vehicle> vehicles, double distance, ChunkBracket bracket) {
+        JourneyResult result = new JourneyResult(vehicles.toArray(new Vehicle[0]), distance);
+        long start = System.nanoTime();
+        int n = result.size();
+
+        if (parallelism == 1 || n <= chunkSize) {
+            runChunk(result, 0, n, bracket);
+        } else {
+            List<Future<?>> pending = new ArrayList<>();
+            for (int from = 0; from < n; from += chunkSize) {
+                int lo = from, hi = Math.min(n, from + chunkSize);
+                pending.add(workers.submit(() -> runChunk(result, lo, hi, bracket)));
+            }
+            for (Future<?> f : pending) {
+                try {
+                    f.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ExecutionException e) {
+                    // runChunk records every failure itself; nothing escapes it.
+                }
+            }
+        }
+
+        result.setElapsedNanos(System.nanoTime() - start);
+        if (logger != null) {
+            logger.execute(() -> logFailures(result, log));
+        }
+        return result;
+    }
+
+    private static void runChunk(JourneyResult result, int from, int to, ChunkBracket bracket) {
+        if (bracket == null) {
+            moveEach(result, from, to);
+            return;
+        }
+        bracket.chunk(true);
+        try {
+            moveEach(result, from, to);
+        } finally {
+            bracket.chunk(false);
+        }
+    }
+
+    private static void moveEach(JourneyResult result, int from, int to) {
+        double distance = result.getDistance();
+        for (int i = from; i < to; i++) {
+            int status = result.getVehicle(i).tryMove(distance);
+            switch (status) {
+                case OperationStatus.OK:
+                    result.record(i, JourneyResult.Outcome.SUCCESS, null);
+                    break;
+                case OperationStatus.INSUFFICIENT_FUEL:
+                    result.record(i, JourneyResult.Outcome.INSUFFICIENT_FUEL, "Not enough fuel for the journey");
+                    break;
+                case OperationStatus.INVALID_ARGUMENT:
+                    result.record(i, JourneyResult.Outcome.INVALID_OPERATION, "Distance cannot be negative");
+                    break;
+                case OperationStatus.INVALID_OPERATION:
+                    result.record(i, JourneyResult.Outcome.INVALID_OPERATION, OperationStatus.describe(status));
+                    break;
+                default:
+                    result.record(i, JourneyResult.Outcome.FAILED, OperationStatus.describe(status));
+            }
+        }
+    }
+
+    public static void logFailures(JourneyResult result, PrintStream out) {
+        for (int i : result.failedIndexes()) {
+            out.println("Could not move vehicle " + result.getVehicle(i).getId() + ": " + result.getMessage(i));
+        }
+        out.println(result.summary());
+    }
+
+    @Override
+    public void close() {
+        workers.shutdown();
+        if (logger != null) {
+            logger.shutdown();
+        }
+    }
+}
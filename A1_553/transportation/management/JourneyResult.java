@@ -0,0 +1,87 @@
+package transportation.management;
+
+import java.util.*;
+import transportation.abstractclasses.Vehicle;
+
+// Per-vehicle outcomes of one fleet-wide journey, stored as one byte per vehicle.
+public class JourneyResult {
+    public enum Outcome {
+        SUCCESS,
+        INSUFFICIENT_FUEL,
+        INVALID_OPERATION,
+        FAILED
+    }
+
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    private final Vehicle[] vehicles;
+    private final double distance;
+    private final byte[] outcomes;
+    private final String[] messages;
+    private long elapsedNanos;
+
+    JourneyResult(Vehicle[] vehicles, double distance) {
+        this.vehicles = vehicles;
+        this.distance = distance;
+        this.outcomes = new byte[vehicles.length];
+        this.messages = new String[vehicles.length];
+    }
+
+    void record(int index, Outcome outcome, String message) {
+        outcomes[index] = (byte) outcome.ordinal();
+        messages[index] = message;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int size() {
+        return vehicles.length;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public Vehicle getVehicle(int index) {
+        return vehicles[index];
+    }
+
+    public Outcome getOutcome(int index) {
+        return OUTCOMES[outcomes[index]];
+    }
+
+    // Exception message for failed vehicles, null on success.
+    public String getMessage(int index) {
+        return messages[index];
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public int count(Outcome outcome) {
+        int count = 0;
+        byte code = (byte) outcome.ordinal();
+        for (byte b : outcomes) {
+            if (b == code) count++;
+        }
+        return count;
+    }
+
+    public List<Integer> failedIndexes() {
+        List<Integer> result = new ArrayList<>();
+        byte success = (byte) Outcome.SUCCESS.ordinal();
+        for (int i = 0; i < outcomes.length; i++) {
+            if (outcomes[i] != success) result.add(i);
+        }
+        return result;
+    }
+
+    public String summary() {
+        return String.format("Journey of %.1f km: %d vehicles, %d moved, %d insufficient fuel, %d invalid, %d failed (%.1f ms)",
+            distance, vehicles.length, count(Outcome.SUCCESS), count(Outcome.INSUFFICIENT_FUEL),
+            count(Outcome.INVALID_OPERATION), count(Outcome.FAILED), elapsedNanos / 1e6);
+    }
+}
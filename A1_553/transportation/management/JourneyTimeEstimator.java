@@ -0,0 +1,98 @@
+package transportation.management;
+
+import java.util.stream.IntStream;
+import transportation.abstractclasses.Vehicle;
+
+// Batch journey-time evaluator. Every estimateJourneyTime implementation is linear in distance,
+// so each vehicle is reduced to its cached time per km, getHoursPerKm(). A route then
+// costs one multiply per vehicle over a primitive array, with no virtual calls in the loop.
+//
+// As with FuelProjector, a time computed this way can differ from a direct
+// estimateJourneyTime(distance) call in the last bit.
+public class JourneyTimeEstimator {
+    private static final long PARALLEL_THRESHOLD = 1L << 20;
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    private final Vehicle[] vehicles;
+    private final double[] hoursPerKm;
+
+    public JourneyTimeEstimator(Iterable<Vehicle> fleet) {
+        int count = 0;
+        for (Vehicle v : fleet) {
+            count++;
+        }
+        vehicles = new Vehicle[count];
+        hoursPerKm = new double[count];
+        int i = 0;
+        for (Vehicle v : fleet) {
+            vehicles[i] = v;
+            hoursPerKm[i] = v.getHoursPerKm();
+            i++;
+        }
+    }
+
+    public int size() {
+        return vehicles.length;
+    }
+
+    public Vehicle getVehicle(int i) {
+        return vehicles[i];
+    }
+
+    public JourneyTimeMatrix evaluate(double... distances) {
+        int v = vehicles.length, d = distances.length;
+        if ((long) v * d > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Matrix of " + v + " vehicles by " + d + " routes is too large");
+        }
+        double[] times = new double[v * d];
+        int blocksPerRoute = Math.max(1, (v + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        int[] blockFastest = new int[d * blocksPerRoute];
+
+        IntStream blocks = IntStream.range(0, d * blocksPerRoute);
+        if ((long) v * d >= PARALLEL_THRESHOLD) {
+            blocks = blocks.parallel();
+        }
+        blocks.forEach(b -> {
+            int route = b / blocksPerRoute;
+            int from = (b % blocksPerRoute) * BLOCK_SIZE;
+            blockFastest[b] = evaluateBlock(distances[route], times, route * v, from, Math.min(v, from + BLOCK_SIZE));
+        });
+
+        int[] fastest = new int[d];
+        for (int route = 0; route < d; route++) {
+            int best = -1;
+            for (int b = route * blocksPerRoute; b < (route + 1) * blocksPerRoute; b++) {
+                int candidate = blockFastest[b];
+                if (candidate >= 0 && (best < 0 || times[route * v + candidate] < times[route * v + best])) {
+                    best = candidate;
+                }
+            }
+            fastest[route] = best;
+        }
+        return new JourneyTimeMatrix(vehicles, distances.clone(), times, fastest);
+    }
+
+    // Fills times[offset + from, offset + to) and returns the fastest vehicle in the block, or -1.
+    private int evaluateBlock(double distance, double[] times, int offset, int from, int to) {
+        if (distance < 0) {
+            for (int i = from; i < to; i++) {
+                times[offset + i] = Double.NaN;
+            }
+            return -1;
+        }
+        double[] rate = hoursPerKm;
+        for (int i = from; i < to; i++) {
+            times[offset + i] = rate[i] * distance;
+        }
+        int best = -1;
+        double bestTime = Double.POSITIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            double t = times[offset + i];
+            if (t < bestTime) {
+                bestTime = t;
+                best = i;
+            }
+        }
+        return best;
+    }
+}
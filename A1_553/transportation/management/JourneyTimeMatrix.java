@@ -0,0 +1,57 @@
+package transportation.management;
+
+import transportation.abstractclasses.Vehicle;
+
+// Dense vehicle-by-route journey times in hours, stored route by route so each route's times
+// are contiguous. Negative distances produce NaN times and no fastest vehicle.
+public class JourneyTimeMatrix {
+    private final Vehicle[] vehicles;
+    private final double[] distances;
+    private final double[] times;
+    private final int[] fastest;
+
+    JourneyTimeMatrix(Vehicle[] vehicles, double[] distances, double[] times, int[] fastest) {
+        this.vehicles = vehicles;
+        this.distances = distances;
+        this.times = times;
+        this.fastest = fastest;
+    }
+
+    public int getVehicleCount() {
+        return vehicles.length;
+    }
+
+    public int getRouteCount() {
+        return distances.length;
+    }
+
+    public Vehicle getVehicle(int vehicle) {
+        return vehicles[vehicle];
+    }
+
+    public double getDistance(int route) {
+        return distances[route];
+    }
+
+    public double getTime(int vehicle, int route) {
+        return times[route * vehicles.length + vehicle];
+    }
+
+    // Copy of one route's column, indexed like getVehicle.
+    public double[] getRouteTimes(int route) {
+        double[] column = new double[vehicles.length];
+        System.arraycopy(times, route * vehicles.length, column, 0, vehicles.length);
+        return column;
+    }
+
+    // Null when the fleet is empty or the distance is negative.
+    public Vehicle getFastestVehicle(int route) {
+        int i = fastest[route];
+        return i < 0 ? null : vehicles[i];
+    }
+
+    public double getFastestTime(int route) {
+        int i = fastest[route];
+        return i < 0 ? Double.NaN : getTime(i, route);
+    }
+}
@@ -0,0 +1,75 @@
+package transportation.management;
+
+import java.util.*;
+import transportation.abstractclasses.Vehicle;
+
+// Keeps the set of vehicles that are due for maintenance, ordered by mileage since their last service.
+// The fleet feeds it every mileage or maintenance change, so queries cost O(due) instead of O(fleet).
+public class MaintenanceTracker {
+    private static final class DueEntry {
+        final Vehicle vehicle;
+        final double mileageSinceMaintenance;
+        final long sequence;
+
+        DueEntry(Vehicle vehicle, double mileageSinceMaintenance, long sequence) {
+            this.vehicle = vehicle;
+            this.mileageSinceMaintenance = mileageSinceMaintenance;
+            this.sequence = sequence;
+        }
+    }
+
+    // Highest mileage first; the sequence keeps entries with equal mileage distinct.
+    private static final Comparator<DueEntry> PRIORITY = (a, b) -> {
+        int cmp = Double.compare(b.mileageSinceMaintenance, a.mileageSinceMaintenance);
+        return cmp != 0 ? cmp : Long.compare(a.sequence, b.sequence);
+    };
+
+    private final Map<Vehicle, DueEntry> due = new HashMap<>();
+    private final TreeSet<DueEntry> queue = new TreeSet<>(PRIORITY);
+    private long nextSequence = 0;
+
+    public synchronized void update(Vehicle vehicle) {
+        DueEntry old = due.remove(vehicle);
+        if (old != null) {
+            queue.remove(old);
+        }
+        if (vehicle.isMaintenanceDue()) {
+            DueEntry entry = new DueEntry(vehicle, vehicle.getMileageSinceMaintenance(), nextSequence++);
+            due.put(vehicle, entry);
+            queue.add(entry);
+        }
+    }
+
+    public synchronized void remove(Vehicle vehicle) {
+        DueEntry old = due.remove(vehicle);
+        if (old != null) {
+            queue.remove(old);
+        }
+    }
+
+    public synchronized void clear() {
+        due.clear();
+        queue.clear();
+    }
+
+    public synchronized boolean isDue(Vehicle vehicle) {
+        return due.containsKey(vehicle);
+    }
+
+    public synchronized int size() {
+        return due.size();
+    }
+
+    // Due vehicles, most overdue first.
+    public synchronized List<Vehicle> getDueVehicles() {
+        List<Vehicle> result = new ArrayList<>(queue.size());
+        for (DueEntry entry : queue) {
+            result.add(entry.vehicle);
+        }
+        return result;
+    }
+
+    public synchronized Vehicle peekMostOverdue() {
+        return queue.isEmpty() ? null : queue.first().vehicle;
+    }
+}
@@ -0,0 +1,111 @@
+package transportation.management;
+
+import transportation.abstractclasses.Vehicle;
+import transportation.interfaces.PassengerCarrier;
+import transportation.utility.OperationStatus;
+
+// Plan produced by PassengerAllocationPlanner: the vehicle each passenger group should board, or
+// none when no vehicle had enough free seats. Nothing is boarded until apply() is called.
+public class PassengerAllocation {
+    private final int[] groups;
+    private final Vehicle[] vehicles;
+    private final int[] assignment;
+    private final long elapsedNanos;
+    private final FleetManager manager;
+
+    PassengerAllocation(FleetManager manager, int[] groups, Vehicle[] vehicles, int[] assignment, long elapsedNanos) {
+        this.manager = manager;
+        this.groups = groups;
+        this.vehicles = vehicles;
+        this.assignment = assignment;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int size() {
+        return groups.length;
+    }
+
+    public int getGroupSize(int group) {
+        return groups[group];
+    }
+
+    // Null when the group could not be placed.
+    public Vehicle getVehicle(int group) {
+        int slot = assignment[group];
+        return slot < 0 ? null : vehicles[slot];
+    }
+
+    public int getAssignedCount() {
+        int count = 0;
+        for (int slot : assignment) {
+            if (slot >= 0) count++;
+        }
+        return count;
+    }
+
+    public int getUnassignedCount() {
+        return assignment.length - getAssignedCount();
+    }
+
+    public long getAssignedPassengers() {
+        long total = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] >= 0) total += groups[i];
+        }
+        return total;
+    }
+
+    public int getVehiclesUsed() {
+        boolean[] used = new boolean[vehicles.length];
+        int count = 0;
+        for (int slot : assignment) {
+            if (slot >= 0 && !used[slot]) {
+                used[slot] = true;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean isComplete() {
+        return getUnassignedCount() == 0;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // Boards every placed group, all or nothing. If a vehicle rejects its group (for example
+    // because passengers boarded it after planning), the groups boarded so far are disembarked
+    // again and the rejecting OperationStatus code is returned. The fleet's listeners see the
+    // boardings as one batch.
+    public int apply() {
+        manager.notifyBatch(true);
+        try {
+            return boardAll();
+        } finally {
+            manager.notifyBatch(false);
+        }
+    }
+
+    private int boardAll() {
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] < 0) continue;
+            int status = ((PassengerCarrier) vehicles[assignment[i]]).tryBoardPassengers(groups[i]);
+            if (status != OperationStatus.OK) {
+                for (int j = i - 1; j >= 0; j--) {
+                    if (assignment[j] >= 0) {
+                        ((PassengerCarrier) vehicles[assignment[j]]).tryDisembarkPassengers(groups[j]);
+                    }
+                }
+                return status;
+            }
+        }
+        return OperationStatus.OK;
+    }
+
+    public String summary() {
+        return String.format("%d groups: %d assigned (%d passengers on %d vehicles), %d unassigned (%.1f ms)",
+            groups.length, getAssignedCount(), getAssignedPassengers(), getVehiclesUsed(), getUnassignedCount(), elapsedNanos / 1e6);
+    }
+}
@@ -0,0 +1,90 @@
+package transportation.management;
+
+import java.util.*;
+import java.util.stream.IntStream;
+import transportation.abstractclasses.Vehicle;
+import transportation.interfaces.PassengerCarrier;
+import transportation.utility.VehicleMetric;
+
+// Spreads passenger groups over the fleet's PassengerCarriers. A group always travels together
+// in one vehicle. Candidates come from the fleet's AVAILABLE_SEATS index, so vehicles without
+// room for even the smallest group are never looked at.
+//
+// Groups are placed largest first on the first candidate with enough seats (a FirstFitTree over
+// free seats). The objective only decides the candidate order:
+//  - FEWEST_VEHICLES: most free seats first, so big vehicles fill up before small ones are opened.
+//  - FASTEST_JOURNEY: shortest estimateJourneyTime(distance) first.
+public class PassengerAllocationPlanner {
+    public enum Objective {
+        FEWEST_VEHICLES,
+        FASTEST_JOURNEY
+    }
+
+    private final FleetManager manager;
+
+    PassengerAllocationPlanner(FleetManager manager) {
+        this.manager = manager;
+    }
+
+    public PassengerAllocation plan(int[] groups) {
+        return plan(groups, Objective.FEWEST_VEHICLES, 0);
+    }
+
+    // distance is only used by FASTEST_JOURNEY.
+    public PassengerAllocation plan(int[] groups, Objective objective, double distance) {
+        long start = System.nanoTime();
+        int[] assignment = new int[groups.length];
+        Arrays.fill(assignment, -1);
+
+        int[] order = IntStream.range(0, groups.length)
+            .filter(i -> groups[i] > 0)
+            .boxed()
+            .sorted((a, b) -> Integer.compare(groups[b], groups[a]))
+            .mapToInt(Integer::intValue)
+            .toArray();
+        if (order.length == 0) {
+            return new PassengerAllocation(manager, groups.clone(), new Vehicle[0], assignment, System.nanoTime() - start);
+        }
+
+        int smallest = groups[order[order.length - 1]];
+        List<Vehicle> candidates = manager.getRangeIndex(VehicleMetric.AVAILABLE_SEATS).range(smallest, Double.POSITIVE_INFINITY);
+        Vehicle[] vehicles = orderCandidates(candidates, objective, distance);
+        double[] free = new double[vehicles.length];
+        for (int i = 0; i < vehicles.length; i++) {
+            PassengerCarrier carrier = (PassengerCarrier) vehicles[i];
+            free[i] = carrier.getPassengerCapacity() - carrier.getCurrentPassengers();
+        }
+
+        FirstFitTree seats = new FirstFitTree(free, 0, vehicles.length);
+        for (int g : order) {
+            if (seats.largest() < smallest) break;
+            assignment[g] = seats.place(groups[g]);
+        }
+        return new PassengerAllocation(manager, groups.clone(), vehicles, assignment, System.nanoTime() - start);
+    }
+
+    private static Vehicle[] orderCandidates(List<Vehicle> candidates, Objective objective, double distance) {
+        int n = candidates.size();
+        Vehicle[] vehicles = new Vehicle[n];
+        if (objective == Objective.FEWEST_VEHICLES) {
+            // The index lists candidates by ascending free seats.
+            for (int i = 0; i < n; i++) {
+                vehicles[i] = candidates.get(n - 1 - i);
+            }
+            return vehicles;
+        }
+        double[] time = new double[n];
+        for (int i = 0; i < n; i++) {
+            time[i] = candidates.get(i).estimateJourneyTime(distance);
+        }
+        int[] byTime = IntStream.range(0, n)
+            .boxed()
+            .sorted((a, b) -> Double.compare(time[a], time[b]))
+            .mapToInt(Integer::intValue)
+            .toArray();
+        for (int i = 0; i < n; i++) {
+            vehicles[i] = candidates.get(byTime[i]);
+        }
+        return vehicles;
+    }
+}
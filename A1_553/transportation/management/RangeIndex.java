@@ -0,0 +1,95 @@
+package transportation.management;
+
+import java.util.*;
+import transportation.abstractclasses.Vehicle;
+import transportation.utility.VehicleMetric;
+
+// Sorted secondary index over one numeric metric. Range queries walk only the matching keys: O(log N + k).
+public class RangeIndex {
+    private final VehicleMetric metric;
+    private final TreeMap<Double, Set<Vehicle>> byValue = new TreeMap<>();
+    private final Map<Vehicle, Double> indexedValue = new HashMap<>();
+
+    public RangeIndex(VehicleMetric metric) {
+        this.metric = metric;
+    }
+
+    public VehicleMetric getMetric() {
+        return metric;
+    }
+
+    public synchronized void update(Vehicle vehicle) {
+        if (!metric.appliesTo(vehicle)) return;
+        double value = metric.extract(vehicle);
+        Double old = indexedValue.get(vehicle);
+        if (old != null) {
+            if (old == value) return;
+            detach(vehicle, old);
+        }
+        indexedValue.put(vehicle, value);
+        byValue.computeIfAbsent(value, k -> new LinkedHashSet<>()).add(vehicle);
+    }
+
+    public synchronized void remove(Vehicle vehicle) {
+        Double old = indexedValue.remove(vehicle);
+        if (old != null) {
+            detach(vehicle, old);
+        }
+    }
+
+    private void detach(Vehicle vehicle, double value) {
+        Set<Vehicle> bucket = byValue.get(value);
+        if (bucket == null) return;
+        bucket.remove(vehicle);
+        if (bucket.isEmpty()) {
+            byValue.remove(value);
+        }
+    }
+
+    public synchronized void clear() {
+        byValue.clear();
+        indexedValue.clear();
+    }
+
+    public synchronized int size() {
+        return indexedValue.size();
+    }
+
+    // Counts matches in [min, max] but stops once the count passes limit, so a planner can
+    // compare access paths without paying for a large range.
+    public synchronized int countInRange(double min, double max, int limit) {
+        if (min > max) return 0;
+        int count = 0;
+        for (Set<Vehicle> bucket : byValue.subMap(min, true, max, true).values()) {
+            count += bucket.size();
+            if (count > limit) break;
+        }
+        return count;
+    }
+
+    // Vehicles whose value lies in [min, max], in ascending order of the metric.
+    public synchronized List<Vehicle> range(double min, double max) {
+        List<Vehicle> result = new ArrayList<>();
+        if (min > max) return result;
+        for (Set<Vehicle> bucket : byValue.subMap(min, true, max, true).values()) {
+            result.addAll(bucket);
+        }
+        return result;
+    }
+
+    public synchronized List<Vehicle> below(double max) {
+        List<Vehicle> result = new ArrayList<>();
+        for (Set<Vehicle> bucket : byValue.headMap(max, false).values()) {
+            result.addAll(bucket);
+        }
+        return result;
+    }
+
+    public synchronized List<Vehicle> above(double min) {
+        List<Vehicle> result = new ArrayList<>();
+        for (Set<Vehicle> bucket : byValue.tailMap(min, false).values()) {
+            result.addAll(bucket);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,145 @@
+package transportation.management;
+
+import java.util.Arrays;
+
+// Open-addressing map from vehicle ID to an int slot, in place of HashMap<String, ...> for the
+// registry. Keys, their hashes and values sit in three parallel arrays, so an entry costs no
+// node object and no boxing. Lookups probe linearly over the hash array alone (0 marks an empty
+// cell) and only touch a key when its cached hash matches; removal shifts later entries back
+// instead of leaving tombstones, so probe runs do not degrade under add/remove churn.
+// Not thread-safe.
+public final class VehicleIdMap {
+    public static final int ABSENT = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private String[] keys;
+    private int[] hashes;
+    private int[] values;
+    private int size;
+    private int shift;
+
+    public VehicleIdMap() {
+        this(0);
+    }
+
+    public VehicleIdMap(int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("Expected size cannot be negative");
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        values = new int[capacity];
+        shift = Integer.numberOfLeadingZeros(capacity - 1);
+    }
+
+    // Fibonacci hashing: take the top bits of the product, which mixes the sequential hashes of
+    // IDs like C001, C002 well enough for linear probing.
+    private int home(int hash) {
+        return (hash * 0x9E3779B9) >>> shift;
+    }
+
+    // Never 0, which marks an empty cell.
+    private static int hash(String id) {
+        int hash = id.hashCode();
+        return hash != 0 ? hash : 1;
+    }
+
+    private int find(String id, int hash) {
+        int mask = hashes.length - 1;
+        for (int i = home(hash); hashes[i] != 0; i = (i + 1) & mask) {
+            if (hashes[i] == hash && keys[i].equals(id)) return i;
+        }
+        return -1;
+    }
+
+    public int get(String id) {
+        int i = find(id, hash(id));
+        return i < 0 ? ABSENT : values[i];
+    }
+
+    public boolean containsKey(String id) {
+        return find(id, hash(id)) >= 0;
+    }
+
+    // Returns the previous value, or ABSENT.
+    public int put(String id, int value) {
+        int hash = hash(id);
+        int mask = hashes.length - 1;
+        int i = home(hash);
+        for (; hashes[i] != 0; i = (i + 1) & mask) {
+            if (hashes[i] == hash && keys[i].equals(id)) {
+                int previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+        keys[i] = id;
+        hashes[i] = hash;
+        values[i] = value;
+        // Kept at most half full; fuller tables make misses (every new ID) probe much longer.
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+        return ABSENT;
+    }
+
+    // Returns the removed value, or ABSENT.
+    public int remove(String id) {
+        int i = find(id, hash(id));
+        if (i < 0) return ABSENT;
+        int removed = values[i];
+        int mask = hashes.length - 1;
+        // Walk the rest of the run and pull back every entry whose home is not between the hole
+        // and its current position.
+        for (int j = (i + 1) & mask; hashes[j] != 0; j = (j + 1) & mask) {
+            int home = home(hashes[j]);
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                hashes[i] = hashes[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = null;
+        hashes[i] = 0;
+        size--;
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(hashes, 0);
+        size = 0;
+    }
+
+    private void grow() {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        int mask = hashes.length - 1;
+        for (int k = 0; k < oldKeys.length; k++) {
+            if (oldHashes[k] == 0) continue;
+            int i = home(oldHashes[k]);
+            while (hashes[i] != 0) i = (i + 1) & mask;
+            keys[i] = oldKeys[k];
+            hashes[i] = oldHashes[k];
+            values[i] = oldValues[k];
+        }
+    }
+}
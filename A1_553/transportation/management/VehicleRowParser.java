@@ -0,0 +1,300 @@
+package transportation.management;
+
+import java.util.Arrays;
+import transportation.abstractclasses.Vehicle;
+import transportation.events.FleetEvent;
+import transportation.utility.ModelDictionary;
+import transportation.vehicles.*;
+
+// Parses rows in the saveToFile format. Fields are located by comma offsets, numbers are read
+// straight from the row's chars and models are looked up in the ModelDictionary, so a well-formed
+// row allocates only its id and vehicle.
+//
+// Numbers take a fast path for plain decimals such as 180.0 or 1.2E7: the digits are collected
+// into a long and scaled by an exact power of ten, which rounds once and so gives exactly what
+// Double.parseDouble would. Anything the fast path does not cover (long mantissas, large
+// exponents, whitespace, NaN, malformed text) is handed to the JDK parser on a substring.
+//
+// A malformed row is not thrown: parse returns null and getError/getErrorMessage describe it, with
+// the same event type and text createVehicleFromString has always reported. Not thread-safe; use
+// one parser per thread.
+public final class VehicleRowParser {
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    // Largest mantissa a double holds exactly.
+    private static final long MAX_EXACT = 1L << 53;
+
+    private String row;
+    private int[] ends = new int[16];
+    private int fieldCount;
+    private FleetEvent.Type error;
+    private String errorMessage;
+
+    // The vehicle on the row; null if the row is short, of an unknown type, or malformed.
+    public Vehicle parse(String data) {
+        row = data;
+        error = null;
+        errorMessage = null;
+        split();
+        if (fieldCount < 6) return null;
+
+        // A bad base field has always escaped createVehicleFromString as a NumberFormatException,
+        // which loaders report as PARSE_FAILED.
+        double maxSpeed = parseDouble(3);
+        double totalMileage = parseDouble(4);
+        double mileageSinceMaintenance = parseDouble(5);
+        if (error != null) {
+            error = FleetEvent.Type.PARSE_FAILED;
+            return null;
+        }
+
+        Vehicle vehicle = build(maxSpeed);
+        if (error != null) {
+            error = FleetEvent.Type.CREATE_FAILED;
+            errorMessage = errorMessage + " from data: " + data;
+            return null;
+        }
+        if (vehicle != null) {
+            vehicle.setMileage(totalMileage, mileageSinceMaintenance);
+        }
+        return vehicle;
+    }
+
+    // PARSE_FAILED or CREATE_FAILED after a malformed row, otherwise null.
+    public FleetEvent.Type getError() {
+        return error;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    private void split() {
+        fieldCount = 0;
+        int from = 0;
+        while (true) {
+            int comma = row.indexOf(',', from);
+            if (fieldCount == ends.length) ends = Arrays.copyOf(ends, fieldCount * 2);
+            ends[fieldCount++] = comma < 0 ? row.length() : comma;
+            if (comma < 0) return;
+            from = comma + 1;
+        }
+    }
+
+    private int start(int field) {
+        return field == 0 ? 0 : ends[field - 1] + 1;
+    }
+
+    private String field(int field) {
+        return row.substring(start(field), ends[field]);
+    }
+
+    private String model() {
+        return ModelDictionary.intern(row, start(2), ends[2]);
+    }
+
+    private boolean fieldEquals(int field, String value) {
+        int start = start(field);
+        return ends[field] - start == value.length() && row.startsWith(value, start);
+    }
+
+    // Fields are read in the order createVehicleFromString always read them, so the first
+    // problem reported is the same one.
+    private Vehicle build(double maxSpeed) {
+        int numWheels;
+        double fuelLevel;
+        double cargo;
+        int passengers;
+        boolean maint;
+
+        try {
+            if (fieldEquals(0, "Car")) {
+                numWheels = parseInt(6);
+                fuelLevel = parseDouble(7);
+                passengers = parseInt(8);
+                maint = parseBoolean(9);
+                if (error != null) return null;
+
+                Car car = new Car(field(1), model(), maxSpeed, numWheels);
+                if (fuelLevel > 0.0) car.refuel(fuelLevel);
+                if (passengers > 0) car.boardPassengers(passengers);
+                if (maint) car.scheduleMaintenance();
+                return car;
+            }
+            if (fieldEquals(0, "Truck")) {
+                numWheels = parseInt(6);
+                fuelLevel = parseDouble(7);
+                cargo = parseDouble(8);
+                maint = parseBoolean(9);
+                if (error != null) return null;
+
+                Truck truck = new Truck(field(1), model(), maxSpeed, numWheels);
+                if (fuelLevel > 0.0) truck.refuel(fuelLevel);
+                if (cargo > 0.0) truck.loadCargo(cargo);
+                if (maint) truck.scheduleMaintenance();
+                return truck;
+            }
+            if (fieldEquals(0, "Bus")) {
+                numWheels = parseInt(6);
+                fuelLevel = parseDouble(7);
+                cargo = parseDouble(8);
+                passengers = parseInt(9);
+                maint = parseBoolean(10);
+                if (error != null) return null;
+
+                Bus bus = new Bus(field(1), model(), maxSpeed, numWheels);
+                if (fuelLevel > 0.0) bus.refuel(fuelLevel);
+                if (cargo > 0.0) bus.loadCargo(cargo);
+                if (passengers > 0) bus.boardPassengers(passengers);
+                if (maint) bus.scheduleMaintenance();
+                return bus;
+            }
+            if (fieldEquals(0, "Airplane")) {
+                double maxAltitude = parseDouble(6);
+                fuelLevel = parseDouble(7);
+                cargo = parseDouble(8);
+                passengers = parseInt(9);
+                maint = parseBoolean(10);
+                if (error != null) return null;
+
+                Airplane plane = new Airplane(field(1), model(), maxSpeed, maxAltitude);
+                if (fuelLevel > 0.0) plane.refuel(fuelLevel);
+                if (cargo > 0.0) plane.loadCargo(cargo);
+                if (passengers > 0) plane.boardPassengers(passengers);
+                if (maint) plane.scheduleMaintenance();
+                return plane;
+            }
+            if (fieldEquals(0, "CargoShip")) {
+                boolean hasSail = parseBoolean(6);
+                cargo = parseDouble(7);
+                fuelLevel = parseDouble(8);
+                maint = parseBoolean(9);
+                if (error != null) return null;
+
+                CargoShip ship = new CargoShip(field(1), model(), maxSpeed, hasSail);
+                if (!hasSail && fuelLevel > 0.0) ship.refuel(fuelLevel);
+                if (cargo > 0.0) ship.loadCargo(cargo);
+                if (maint) ship.scheduleMaintenance();
+                return ship;
+            }
+            return null;
+        } catch (Exception e) {
+            // Rejected by a constructor or a capacity check.
+            fail(e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean missing(int field) {
+        if (field < fieldCount) return false;
+        fail("Index " + field + " out of bounds for length " + fieldCount);
+        return true;
+    }
+
+    private void fail(String message) {
+        if (error == null) {
+            error = FleetEvent.Type.CREATE_FAILED;
+            errorMessage = message;
+        }
+    }
+
+    private double parseDouble(int field) {
+        if (error != null || missing(field)) return 0;
+        int i = start(field), end = ends[field];
+        boolean negative = false;
+        if (i < end && (row.charAt(i) == '-' || row.charAt(i) == '+')) {
+            negative = row.charAt(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0, scale = 0;
+        boolean point = false;
+        for (; i < end; i++) {
+            char c = row.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > 18) return slowDouble(field);
+                mantissa = mantissa * 10 + (c - '0');
+                if (point) scale++;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) return slowDouble(field);
+        int exponent = 0;
+        if (i < end && (row.charAt(i) == 'E' || row.charAt(i) == 'e')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (row.charAt(i) == '-' || row.charAt(i) == '+')) {
+                negativeExponent = row.charAt(i) == '-';
+                i++;
+            }
+            int exponentDigits = 0;
+            for (; i < end && row.charAt(i) >= '0' && row.charAt(i) <= '9'; i++) {
+                if (++exponentDigits > 3) return slowDouble(field);
+                exponent = exponent * 10 + (row.charAt(i) - '0');
+            }
+            if (exponentDigits == 0) return slowDouble(field);
+            if (negativeExponent) exponent = -exponent;
+        }
+        if (i != end) return slowDouble(field);
+
+        double value;
+        int power = exponent - scale;
+        if (mantissa == 0) {
+            value = 0.0;
+        } else if (mantissa < MAX_EXACT && power >= -22 && power <= 22) {
+            value = power < 0 ? mantissa / POWERS_OF_TEN[-power] : mantissa * POWERS_OF_TEN[power];
+        } else {
+            return slowDouble(field);
+        }
+        return negative ? -value : value;
+    }
+
+    private double slowDouble(int field) {
+        try {
+            return Double.parseDouble(field(field));
+        } catch (NumberFormatException e) {
+            fail(e.getMessage());
+            return 0;
+        }
+    }
+
+    private int parseInt(int field) {
+        if (error != null || missing(field)) return 0;
+        int i = start(field), end = ends[field];
+        boolean negative = false;
+        if (i < end && (row.charAt(i) == '-' || row.charAt(i) == '+')) {
+            negative = row.charAt(i) == '-';
+            i++;
+        }
+        // Nine digits cannot overflow an int.
+        if (i == end || end - i > 9) return slowInt(field);
+        int value = 0;
+        for (; i < end; i++) {
+            char c = row.charAt(i);
+            if (c < '0' || c > '9') return slowInt(field);
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private int slowInt(int field) {
+        try {
+            return Integer.parseInt(field(field));
+        } catch (NumberFormatException e) {
+            fail(e.getMessage());
+            return 0;
+        }
+    }
+
+    // Same as Boolean.parseBoolean: "true" in any case, anything else is false.
+    private boolean parseBoolean(int field) {
+        if (error != null || missing(field)) return false;
+        int start = start(field);
+        return ends[field] - start == 4 && row.regionMatches(true, start, "true", 0, 4);
+    }
+}
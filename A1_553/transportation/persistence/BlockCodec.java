@@ -0,0 +1,117 @@
+package transportation.persistence;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// Small LZ77 block compressor in the spirit of LZ4: greedy matching through a hash of the next
+// four bytes, 64 KB window, no entropy coding. A compressed block is a sequence of
+//   [varint literal count][literals][varint match length][u16 offset]
+// where a match length of 0 (with no offset) marks the final literals of the block.
+final class BlockCodec {
+    static final int BLOCK_SIZE = 1 << 16;
+    private static final int MIN_MATCH = 4;
+    private static final int HASH_BITS = 14;
+    private static final int MAX_OFFSET = 0xFFFF;
+
+    private BlockCodec() {
+    }
+
+    // Enough room for any compressed block of len bytes.
+    static int maxCompressedLength(int len) {
+        return len + len / 64 + 16;
+    }
+
+    // Compresses src[0, len) into dst and returns the compressed length. table is scratch space
+    // of size 1 << HASH_BITS, reused across blocks.
+    static int compress(byte[] src, int len, byte[] dst, int[] table) {
+        Arrays.fill(table, -1);
+        int out = 0;
+        int anchor = 0;
+        int i = 0;
+        int limit = len - MIN_MATCH;
+        while (i <= limit) {
+            int seq = readInt(src, i);
+            int h = (seq * -1640531535) >>> (32 - HASH_BITS);
+            int ref = table[h];
+            table[h] = i;
+            if (ref >= 0 && i - ref <= MAX_OFFSET && readInt(src, ref) == seq) {
+                int match = MIN_MATCH;
+                while (i + match < len && src[ref + match] == src[i + match]) match++;
+                out = writeVarint(dst, out, i - anchor);
+                System.arraycopy(src, anchor, dst, out, i - anchor);
+                out += i - anchor;
+                out = writeVarint(dst, out, match);
+                dst[out++] = (byte) (i - ref);
+                dst[out++] = (byte) ((i - ref) >>> 8);
+                i += match;
+                anchor = i;
+            } else {
+                i++;
+            }
+        }
+        out = writeVarint(dst, out, len - anchor);
+        System.arraycopy(src, anchor, dst, out, len - anchor);
+        out += len - anchor;
+        out = writeVarint(dst, out, 0);
+        return out;
+    }
+
+    static int hashTableSize() {
+        return 1 << HASH_BITS;
+    }
+
+    // Decompresses src[0, len) into dst, which must hold rawLength bytes.
+    static void decompress(byte[] src, int len, byte[] dst, int rawLength) throws IOException {
+        int in = 0, out = 0;
+        int[] pos = new int[1];
+        try {
+            while (in < len) {
+                pos[0] = in;
+                int literals = readVarint(src, pos);
+                in = pos[0];
+                System.arraycopy(src, in, dst, out, literals);
+                in += literals;
+                out += literals;
+                pos[0] = in;
+                int match = readVarint(src, pos);
+                in = pos[0];
+                if (match == 0) break;
+                int offset = (src[in] & 0xFF) | (src[in + 1] & 0xFF) << 8;
+                in += 2;
+                if (offset == 0 || offset > out) throw new IOException("Corrupt block: bad match offset");
+                // Byte by byte: a match may overlap the bytes it is producing.
+                for (int k = 0; k < match; k++, out++) {
+                    dst[out] = dst[out - offset];
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt block", e);
+        }
+        if (out != rawLength) throw new IOException("Corrupt block: expected " + rawLength + " bytes, got " + out);
+    }
+
+    private static int readInt(byte[] b, int i) {
+        return (b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8 | (b[i + 2] & 0xFF) << 16 | (b[i + 3] & 0xFF) << 24;
+    }
+
+    private static int writeVarint(byte[] dst, int out, int value) {
+        while ((value & ~0x7F) != 0) {
+            dst[out++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        dst[out++] = (byte) value;
+        return out;
+    }
+
+    private static int readVarint(byte[] src, int[] pos) {
+        int value = 0, shift = 0, i = pos[0];
+        while (true) {
+            byte b = src[i++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) break;
+            shift += 7;
+        }
+        pos[0] = i;
+        return value;
+    }
+}
@@ -0,0 +1,59 @@
+package transportation.persistence;
+
+import java.io.*;
+
+// Reads the stream written by BlockCodecOutputStream. The caller has already consumed the magic.
+class BlockCodecInputStream extends InputStream {
+    private final DataInputStream in;
+    private final byte[] block = new byte[BlockCodec.BLOCK_SIZE];
+    private byte[] compressed = new byte[BlockCodec.maxCompressedLength(BlockCodec.BLOCK_SIZE)];
+    private int position;
+    private int limit;
+    private boolean finished;
+
+    BlockCodecInputStream(InputStream in) {
+        this.in = new DataInputStream(in);
+    }
+
+    private boolean nextBlock() throws IOException {
+        if (finished) return false;
+        int raw = in.readInt();
+        if (raw == 0) {
+            finished = true;
+            return false;
+        }
+        if (raw < 0 || raw > block.length) throw new IOException("Corrupt block header");
+        int stored = in.readInt();
+        if (stored == -1) {
+            in.readFully(block, 0, raw);
+        } else {
+            if (stored < 0 || stored > compressed.length) throw new IOException("Corrupt block header");
+            in.readFully(compressed, 0, stored);
+            BlockCodec.decompress(compressed, stored, block, raw);
+        }
+        position = 0;
+        limit = raw;
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == limit && !nextBlock()) return -1;
+        return block[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (position == limit && !nextBlock()) return -1;
+        int n = Math.min(len, limit - position);
+        System.arraycopy(block, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
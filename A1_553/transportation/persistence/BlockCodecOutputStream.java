@@ -0,0 +1,74 @@
+package transportation.persistence;
+
+import java.io.*;
+
+// Writes the BLOCK format: the magic bytes, then per 64 KB of input
+// [int raw length][int stored length][data], where a stored length of -1 means the block did
+// not compress and is stored as is. A raw length of 0 ends the stream.
+class BlockCodecOutputStream extends FilterOutputStream {
+    static final byte[] MAGIC = {'F', 'L', 'Z', '1'};
+
+    private final DataOutputStream data;
+    private final byte[] block = new byte[BlockCodec.BLOCK_SIZE];
+    private final byte[] compressed = new byte[BlockCodec.maxCompressedLength(BlockCodec.BLOCK_SIZE)];
+    private final int[] table = new int[BlockCodec.hashTableSize()];
+    private int filled;
+    private boolean closed;
+
+    BlockCodecOutputStream(OutputStream out) throws IOException {
+        super(out);
+        this.data = new DataOutputStream(out);
+        data.write(MAGIC);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (filled == block.length) writeBlock();
+        block[filled++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (filled == block.length) writeBlock();
+            int n = Math.min(len, block.length - filled);
+            System.arraycopy(b, off, block, filled, n);
+            filled += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (filled == 0) return;
+        int size = BlockCodec.compress(block, filled, compressed, table);
+        data.writeInt(filled);
+        if (size < filled) {
+            data.writeInt(size);
+            data.write(compressed, 0, size);
+        } else {
+            data.writeInt(-1);
+            data.write(block, 0, filled);
+        }
+        filled = 0;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writeBlock();
+        data.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            writeBlock();
+            data.writeInt(0);
+            data.flush();
+        } finally {
+            out.close();
+        }
+    }
+}
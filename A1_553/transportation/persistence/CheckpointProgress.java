@@ -0,0 +1,54 @@
+package transportation.persistence;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+// Handle on one background checkpoint: how far the writer has got, and a future that completes
+// with the written file once it has been renamed into place.
+public class CheckpointProgress {
+    private final Path target;
+    private final long version;
+    private final int totalRows;
+    private volatile int rowsWritten;
+    private final CompletableFuture<Path> future = new CompletableFuture<>();
+
+    CheckpointProgress(Path target, long version, int totalRows) {
+        this.target = target;
+        this.version = version;
+        this.totalRows = totalRows;
+    }
+
+    public Path getTarget() {
+        return target;
+    }
+
+    // Fleet version the checkpoint was captured at.
+    public long getVersion() {
+        return version;
+    }
+
+    public int getTotalRows() {
+        return totalRows;
+    }
+
+    public int getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public double getProgress() {
+        if (future.isDone()) return 1.0;
+        return totalRows == 0 ? 0 : (double) rowsWritten / totalRows;
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    public CompletableFuture<Path> getFuture() {
+        return future;
+    }
+
+    void setRowsWritten(int rows) {
+        rowsWritten = rows;
+    }
+}
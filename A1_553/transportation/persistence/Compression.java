@@ -0,0 +1,10 @@
+package transportation.persistence;
+
+// On-disk encodings of a fleet file. Readers detect the encoding from the first bytes, so only
+// writers need to choose.
+public enum Compression {
+    NONE,
+    GZIP,
+    // In-process LZ block codec (BlockCodec): much faster than gzip, somewhat larger files.
+    BLOCK
+}
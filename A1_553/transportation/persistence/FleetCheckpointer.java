@@ -0,0 +1,84 @@
+package transportation.persistence;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import transportation.events.EventSinks;
+import transportation.events.FleetEvent;
+import transportation.management.FleetManager;
+import transportation.management.FleetSnapshot;
+
+// Saves the fleet without blocking the caller. The caller's thread only takes a columnar copy
+// (FleetColumns); formatting, writing and fsync happen on one background thread. The file is
+// written next to the target and renamed over it, so readers only ever see a complete file.
+// Checkpoints run one at a time, in the order they were requested.
+public class FleetCheckpointer implements AutoCloseable {
+    private static final int PROGRESS_EVERY = 4096;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "fleet-checkpoint");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public CheckpointProgress checkpoint(FleetSnapshot snapshot, Path target) {
+        FleetColumns columns = FleetColumns.capture(snapshot);
+        CheckpointProgress progress = new CheckpointProgress(target, columns.getVersion(), columns.size());
+        writer.execute(() -> {
+            try {
+                write(columns, target, progress);
+                progress.getFuture().complete(target);
+                EventSinks.get().publish(FleetEvent.Type.FLEET_SAVED, null, 0, target.toString());
+            } catch (IOException | RuntimeException e) {
+                progress.getFuture().completeExceptionally(e);
+                EventSinks.get().publish(FleetEvent.Type.SAVE_FAILED, null, 0, e.getMessage());
+            }
+        });
+        return progress;
+    }
+
+    // Writes columns to target in the saveToFile format via a temporary file and an atomic
+    // rename. progress may be null.
+    public static void write(FleetColumns columns, Path target, CheckpointProgress progress) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        StringBuilder row = new StringBuilder(128);
+        try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            out.write(FleetManager.CSV_HEADER);
+            out.newLine();
+            for (int i = 0; i < columns.size(); i++) {
+                row.setLength(0);
+                columns.appendRow(i, row);
+                out.append(row);
+                out.newLine();
+                if (progress != null && i % PROGRESS_EVERY == 0) {
+                    progress.setRowsWritten(i);
+                }
+            }
+        }
+        install(tmp, target);
+        if (progress != null) {
+            progress.setRowsWritten(columns.size());
+        }
+    }
+
+    // Makes a fully written temporary file durable and renames it over target.
+    static void install(Path tmp, Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public void close() {
+        writer.shutdown();
+    }
+}
@@ -0,0 +1,131 @@
+package transportation.persistence;
+
+import java.util.Formatter;
+import transportation.abstractclasses.*;
+import transportation.interfaces.*;
+import transportation.management.FleetSnapshot;
+import transportation.vehicles.*;
+
+// Column-wise copy of every field saveToFile writes, one primitive array per field. Capturing
+// only copies numbers and references, so it is cheap enough to run on the thread that owns the
+// fleet; the text is produced later, on any thread, by appendRow.
+public final class FleetColumns {
+    private static final byte CAR = 0;
+    private static final byte TRUCK = 1;
+    private static final byte BUS = 2;
+    private static final byte AIRPLANE = 3;
+    private static final byte CARGO_SHIP = 4;
+    private static final byte OTHER = 5;
+
+    private final long version;
+    private final int size;
+    private final byte[] kind;
+    private final String[] id;
+    private final String[] model;
+    private final double[] maxSpeed;
+    private final double[] totalMileage;
+    private final double[] mileageSinceMaintenance;
+    // Wheels, altitude or sail (1 or 0), depending on the vehicle's hierarchy.
+    private final double[] shape;
+    private final double[] fuel;
+    private final double[] cargo;
+    private final int[] passengers;
+    private final boolean[] maintenance;
+    // Vehicle types this class does not know are kept as their finished CSV line.
+    private final String[] otherRows;
+
+    private FleetColumns(FleetSnapshot snapshot) {
+        version = snapshot.getVersion();
+        size = snapshot.size();
+        kind = new byte[size];
+        id = new String[size];
+        model = new String[size];
+        maxSpeed = new double[size];
+        totalMileage = new double[size];
+        mileageSinceMaintenance = new double[size];
+        shape = new double[size];
+        fuel = new double[size];
+        cargo = new double[size];
+        passengers = new int[size];
+        maintenance = new boolean[size];
+        otherRows = new String[size];
+
+        for (int i = 0; i < size; i++) {
+            Vehicle v = snapshot.get(i);
+            kind[i] = kindOf(v);
+            if (kind[i] == OTHER) {
+                otherRows[i] = v.toString();
+                continue;
+            }
+            id[i] = v.getId();
+            model[i] = v.getModel();
+            maxSpeed[i] = v.getMaxSpeed();
+            totalMileage[i] = v.getTotalMileage();
+            mileageSinceMaintenance[i] = v.getMileageSinceMaintenance();
+            if (v instanceof LandVehicle) shape[i] = ((LandVehicle) v).getNumWheels();
+            else if (v instanceof AirVehicle) shape[i] = ((AirVehicle) v).getMaxAltitude();
+            else if (v instanceof WaterVehicle) shape[i] = ((WaterVehicle) v).hasSail() ? 1 : 0;
+            if (v instanceof FuelConsumable) fuel[i] = ((FuelConsumable) v).getFuelLevel();
+            if (v instanceof CargoCarrier) cargo[i] = ((CargoCarrier) v).getCurrentCargo();
+            if (v instanceof PassengerCarrier) passengers[i] = ((PassengerCarrier) v).getCurrentPassengers();
+            if (v instanceof Maintainable) maintenance[i] = ((Maintainable) v).isMaintenanceScheduled();
+        }
+    }
+
+    public static FleetColumns capture(FleetSnapshot snapshot) {
+        return new FleetColumns(snapshot);
+    }
+
+    private static byte kindOf(Vehicle v) {
+        Class<?> type = v.getClass();
+        if (type == Car.class) return CAR;
+        if (type == Truck.class) return TRUCK;
+        if (type == Bus.class) return BUS;
+        if (type == Airplane.class) return AIRPLANE;
+        if (type == CargoShip.class) return CARGO_SHIP;
+        return OTHER;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Appends row i exactly as the vehicle's toString() would have produced it at capture time.
+    public void appendRow(int i, StringBuilder out) {
+        if (kind[i] == OTHER) {
+            out.append(otherRows[i]);
+            return;
+        }
+        switch (kind[i]) {
+            case CAR: out.append("Car,"); break;
+            case TRUCK: out.append("Truck,"); break;
+            case BUS: out.append("Bus,"); break;
+            case AIRPLANE: out.append("Airplane,"); break;
+            default: out.append("CargoShip,"); break;
+        }
+        new Formatter(out).format("%s,%s,%.1f,%.1f,%.1f", id[i], model[i], maxSpeed[i], totalMileage[i], mileageSinceMaintenance[i]);
+        out.append(',');
+        switch (kind[i]) {
+            case CAR:
+                out.append((int) shape[i]).append(',').append(fuel[i]).append(',').append(passengers[i]);
+                break;
+            case TRUCK:
+                out.append((int) shape[i]).append(',').append(fuel[i]).append(',').append(cargo[i]);
+                break;
+            case BUS:
+                out.append((int) shape[i]).append(',').append(fuel[i]).append(',').append(cargo[i]).append(',').append(passengers[i]);
+                break;
+            case AIRPLANE:
+                out.append(shape[i]).append(',').append(fuel[i]).append(',').append(cargo[i]).append(',').append(passengers[i]);
+                break;
+            default:
+                out.append(shape[i] != 0).append(',').append(cargo[i]).append(',').append(fuel[i]);
+                break;
+        }
+        out.append(',').append(maintenance[i]);
+    }
+}
@@ -0,0 +1,183 @@
+package transportation.persistence;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import transportation.management.FleetManager;
+
+// Compares and merges fleet files without loading them into a FleetManager. Each input is
+// sorted by ID with an external merge sort (SortedFleetRows), so memory is bounded by the run
+// size rather than the fleet size, and the sorted streams are then walked once side by side.
+// Any file FleetFiles can read works, compressed or not. Within one file only the first row for
+// an ID counts, as in FleetManager.loadFromFile, so a diff describes the fleets that loading the
+// two files would build.
+public class FleetDiff {
+    private static final int DEFAULT_RUN_SIZE = 200_000;
+    private static final String[] FIELD_NAMES = FleetManager.CSV_HEADER.split(",");
+
+    public interface Listener {
+        void added(String row);
+        void removed(String row);
+        void changed(String id, String oldRow, String newRow, List<FieldDelta> deltas);
+    }
+
+    public static final class FieldDelta {
+        private final String field;
+        private final String oldValue;
+        private final String newValue;
+
+        FieldDelta(String field, String oldValue, String newValue) {
+            this.field = field;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+
+        public String getField() { return field; }
+        public String getOldValue() { return oldValue; }
+        public String getNewValue() { return newValue; }
+
+        @Override
+        public String toString() {
+            return field + ": " + oldValue + " -> " + newValue;
+        }
+    }
+
+    public static final class Summary {
+        long added, removed, changed, unchanged, rows, conflicts;
+
+        public long getAdded() { return added; }
+        public long getRemoved() { return removed; }
+        public long getChanged() { return changed; }
+        public long getUnchanged() { return unchanged; }
+        // Merge only: rows written, and IDs that appeared in more than one input.
+        public long getRows() { return rows; }
+        public long getConflicts() { return conflicts; }
+
+        @Override
+        public String toString() {
+            return rows > 0
+                ? rows + " rows, " + conflicts + " conflicts"
+                : "added " + added + ", removed " + removed + ", changed " + changed + ", unchanged " + unchanged;
+        }
+    }
+
+    private final int runSize;
+    private final Path tempDir;
+
+    public FleetDiff() {
+        this(DEFAULT_RUN_SIZE, Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    public FleetDiff(int runSize, Path tempDir) {
+        if (runSize <= 0) throw new IllegalArgumentException("Run size must be positive");
+        this.runSize = runSize;
+        this.tempDir = tempDir;
+    }
+
+    public Summary diff(String oldFile, String newFile, Listener listener) throws IOException {
+        Summary summary = new Summary();
+        try (SortedFleetRows before = new SortedFleetRows(oldFile, runSize, tempDir);
+             SortedFleetRows after = new SortedFleetRows(newFile, runSize, tempDir)) {
+            while (before.peekId() != null || after.peekId() != null) {
+                int c = before.peekId() == null ? 1
+                    : after.peekId() == null ? -1
+                    : before.peekId().compareTo(after.peekId());
+                if (c < 0) {
+                    listener.removed(before.next());
+                    summary.removed++;
+                } else if (c > 0) {
+                    listener.added(after.next());
+                    summary.added++;
+                } else {
+                    String id = before.peekId();
+                    String oldRow = before.next(), newRow = after.next();
+                    if (oldRow.equals(newRow)) {
+                        summary.unchanged++;
+                    } else {
+                        listener.changed(id, oldRow, newRow, deltas(oldRow, newRow));
+                        summary.changed++;
+                    }
+                }
+            }
+        }
+        return summary;
+    }
+
+    // Writes one line per difference: ADDED,<row> / REMOVED,<row> /
+    // CHANGED,<id>,<field>,<old>,<new> (one CHANGED line per differing field).
+    public Summary diff(String oldFile, String newFile, String reportFile) throws IOException {
+        try (Writer out = FleetFiles.openWriter(reportFile, Compression.NONE)) {
+            return diff(oldFile, newFile, new Listener() {
+                public void added(String row) { writeLine(out, "ADDED," + row); }
+                public void removed(String row) { writeLine(out, "REMOVED," + row); }
+                public void changed(String id, String oldRow, String newRow, List<FieldDelta> deltas) {
+                    for (FieldDelta d : deltas) {
+                        writeLine(out, "CHANGED," + id + "," + d.field + "," + d.oldValue + "," + d.newValue);
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeLine(Writer out, String line) {
+        try {
+            out.write(line);
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<FieldDelta> deltas(String oldRow, String newRow) {
+        String[] a = oldRow.split(",", -1), b = newRow.split(",", -1);
+        List<FieldDelta> result = new ArrayList<>();
+        for (int i = 0; i < Math.max(a.length, b.length); i++) {
+            String x = i < a.length ? a[i] : "", y = i < b.length ? b[i] : "";
+            if (!x.equals(y)) {
+                result.add(new FieldDelta(i < FIELD_NAMES.length ? FIELD_NAMES[i] : "Field" + (i + 1), x, y));
+            }
+        }
+        return result;
+    }
+
+    // Merges several fleet files into one, sorted by ID. When an ID appears in more than one
+    // input, the row from the input listed last wins.
+    public Summary merge(List<String> inputs, String output, Compression compression) throws IOException {
+        Summary summary = new Summary();
+        List<SortedFleetRows> sources = new ArrayList<>();
+        try (Writer out = FleetFiles.openWriter(output, compression)) {
+            for (String input : inputs) {
+                sources.add(new SortedFleetRows(input, runSize, tempDir));
+            }
+            out.write(FleetManager.CSV_HEADER);
+            out.write('\n');
+            while (true) {
+                String id = null;
+                for (SortedFleetRows s : sources) {
+                    String candidate = s.peekId();
+                    if (candidate != null && (id == null || candidate.compareTo(id) < 0)) id = candidate;
+                }
+                if (id == null) break;
+                String row = null;
+                int seen = 0;
+                for (SortedFleetRows s : sources) {
+                    if (id.equals(s.peekId())) {
+                        row = s.next();
+                        seen++;
+                    }
+                }
+                if (seen > 1) summary.conflicts++;
+                out.write(row);
+                out.write('\n');
+                summary.rows++;
+            }
+        } finally {
+            for (SortedFleetRows s : sources) {
+                s.close();
+            }
+        }
+        return summary;
+    }
+}
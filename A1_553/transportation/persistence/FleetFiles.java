@@ -0,0 +1,73 @@
+package transportation.persistence;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Opens fleet files in any supported Compression. Text uses the platform charset, as the plain
+// CSV always has. Readers sniff the first bytes: gzip and BLOCK files start with their own magic,
+// anything else is read as plain text. Compressed input is decompressed on a separate thread,
+// pipelined with the caller's parsing.
+public final class FleetFiles {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private FleetFiles() {
+    }
+
+    public static Writer openWriter(String filename, Compression compression) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(openOutputStream(filename, compression), Charset.defaultCharset()), BUFFER_SIZE);
+    }
+
+    // Byte-level variant of openWriter, for record formats that are not text.
+    public static OutputStream openOutputStream(String filename, Compression compression) throws IOException {
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(filename), BUFFER_SIZE);
+        try {
+            switch (compression) {
+                case GZIP: out = new GZIPOutputStream(out, BUFFER_SIZE); break;
+                case BLOCK: out = new BlockCodecOutputStream(out); break;
+                default: break;
+            }
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+        return out;
+    }
+
+    // Throws FileNotFoundException when the file does not exist.
+    public static BufferedReader openReader(String filename) throws IOException {
+        return new BufferedReader(new InputStreamReader(openInputStream(filename), Charset.defaultCharset()), BUFFER_SIZE);
+    }
+
+    // Decompressed bytes of the file, buffered so callers can mark and peek at them.
+    public static BufferedInputStream openInputStream(String filename) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(new FileInputStream(filename), BUFFER_SIZE);
+        try {
+            Compression compression = detect(in);
+            switch (compression) {
+                case GZIP:
+                    return new BufferedInputStream(new PipelinedInputStream(new GZIPInputStream(in, BUFFER_SIZE), "fleet-gunzip"), BUFFER_SIZE);
+                case BLOCK:
+                    in.skip(BlockCodecOutputStream.MAGIC.length);
+                    return new BufferedInputStream(new PipelinedInputStream(new BlockCodecInputStream(in), "fleet-unblock"), BUFFER_SIZE);
+                default:
+                    return in;
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    // Peeks at the first bytes without consuming them.
+    public static Compression detect(BufferedInputStream in) throws IOException {
+        byte[] head = new byte[4];
+        in.mark(head.length);
+        int n = in.readNBytes(head, 0, head.length);
+        in.reset();
+        if (n >= 2 && (head[0] & 0xFF) == 0x1F && (head[1] & 0xFF) == 0x8B) return Compression.GZIP;
+        if (n == 4 && head[0] == 'F' && head[1] == 'L' && head[2] == 'Z' && head[3] == '1') return Compression.BLOCK;
+        return Compression.NONE;
+    }
+}
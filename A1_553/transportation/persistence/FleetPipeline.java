@@ -0,0 +1,378 @@
+package transportation.persistence;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import transportation.abstractclasses.Vehicle;
+import transportation.events.EventSinks;
+import transportation.events.FleetEvent;
+import transportation.management.FleetManager;
+import transportation.management.VehicleRowParser;
+import transportation.utility.VehicleMetric;
+
+// Filters, transforms and converts a fleet file without loading it into a FleetManager. Three
+// stages run concurrently:
+//   read      - one thread frames rows (CSV lines or binary records) into batches;
+//   transform - worker threads parse each row with a VehicleRowParser, apply the filters and
+//               transforms and render the survivors back to rows;
+//   write     - the calling thread writes finished batches in input order.
+// A semaphore caps the batches in flight across all three, so a slow writer stalls the reader
+// instead of letting memory grow.
+//
+// BINARY files are the same rows framed as length-prefixed UTF-8 records after a magic header,
+// which spares the reader a line scan. Input format and compression are detected.
+//
+// Output goes to a temporary file that is renamed over the target only when the run succeeds,
+// so a failed run leaves the previous output (or none) rather than a truncated one.
+public class FleetPipeline {
+    public enum Format {
+        CSV,
+        // Pipeline-only interchange format: "FLB1", then [int length][UTF-8 row] records ending
+        // with length -1. Only FleetPipeline reads it; convert back to CSV for loadFromFile,
+        // LazyFleetFile and FleetDiff.
+        BINARY
+    }
+
+    public static final class Result {
+        private final long read, written, rejected;
+
+        Result(long read, long written, long rejected) {
+            this.read = read;
+            this.written = written;
+            this.rejected = rejected;
+        }
+
+        public long getRowsRead() { return read; }
+        public long getRowsWritten() { return written; }
+        // Rows that could not be parsed into a vehicle.
+        public long getRowsRejected() { return rejected; }
+
+        @Override
+        public String toString() {
+            return read + " read, " + written + " written, " + rejected + " rejected";
+        }
+    }
+
+    private static final class Batch {
+        final long sequence;
+        final String[] rows;
+        int size;
+
+        Batch(long sequence, String[] rows, int size) {
+            this.sequence = sequence;
+            this.rows = rows;
+            this.size = size;
+        }
+    }
+
+    static final byte[] BINARY_MAGIC = {'F', 'L', 'B', '1'};
+    private static final int BATCH_SIZE = 1024;
+    private static final Batch END = new Batch(-1, null, 0);
+    // Sent to the writer by a worker whose filter or transform threw.
+    private static final Batch ABORT = new Batch(-1, null, 0);
+
+    private final int workers;
+    private final Set<String> types = new HashSet<>();
+    private final List<Predicate<Vehicle>> filters = new ArrayList<>();
+    private final List<Consumer<Vehicle>> transforms = new ArrayList<>();
+
+    public FleetPipeline() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public FleetPipeline(int workers) {
+        if (workers <= 0) throw new IllegalArgumentException("Worker count must be positive");
+        this.workers = workers;
+    }
+
+    // Type names as written in the first column, e.g. "Truck". Checked before a row is parsed.
+    public FleetPipeline ofType(String... typeNames) {
+        types.addAll(Arrays.asList(typeNames));
+        return this;
+    }
+
+    public FleetPipeline mileageBetween(double min, double max) {
+        return where(v -> {
+            double mileage = VehicleMetric.TOTAL_MILEAGE.extract(v);
+            return mileage >= min && mileage <= max;
+        });
+    }
+
+    public FleetPipeline maintenanceDue() {
+        return where(Vehicle::isMaintenanceDue);
+    }
+
+    public FleetPipeline model(String model) {
+        return where(v -> v.getModel().equalsIgnoreCase(model));
+    }
+
+    public FleetPipeline where(Predicate<Vehicle> filter) {
+        filters.add(filter);
+        return this;
+    }
+
+    // Applied in order to every vehicle that passes the filters, e.g. Maintainable::performMaintenance.
+    public FleetPipeline transform(Consumer<Vehicle> step) {
+        transforms.add(step);
+        return this;
+    }
+
+    public Result run(String input, String output, Format format, Compression compression) throws IOException {
+        Semaphore inFlight = new Semaphore(2 * workers + 2);
+        BlockingQueue<Batch> work = new ArrayBlockingQueue<>(workers + 1);
+        // Bounded by inFlight.
+        BlockingQueue<Batch> done = new LinkedBlockingQueue<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong rejected = new AtomicLong();
+        long[] totals = new long[2];
+
+        Path target = Paths.get(output);
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        BufferedInputStream in = FleetFiles.openInputStream(input);
+        List<Thread> threads = new ArrayList<>();
+        boolean installed = false;
+        try {
+            try (OutputStream out = FleetFiles.openOutputStream(tmp.toString(), compression)) {
+                threads.add(start("fleet-pipeline-read", () -> read(in, inFlight, work, done, failure, totals)));
+                for (int i = 0; i < workers; i++) {
+                    threads.add(start("fleet-pipeline-" + i, () -> transform(work, done, failure, rejected)));
+                }
+                write(out, format, inFlight, done, totals);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Pipeline interrupted");
+            } finally {
+                for (Thread t : threads) {
+                    t.interrupt();
+                }
+                in.close();
+            }
+            Throwable cause = failure.get();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause != null) throw new IOException(cause);
+            FleetCheckpointer.install(tmp, target);
+            installed = true;
+        } finally {
+            if (!installed) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException e) {
+                    // The failure that stopped the run is the one to report.
+                }
+            }
+        }
+        return new Result(totals[0], totals[1], rejected.get());
+    }
+
+    private static Thread start(String name, Runnable task) {
+        Thread t = new Thread(task, name);
+        t.setDaemon(true);
+        t.start();
+        return t;
+    }
+
+    private void read(BufferedInputStream in, Semaphore inFlight, BlockingQueue<Batch> work,
+                      BlockingQueue<Batch> done, AtomicReference<Throwable> failure, long[] totals) {
+        long sequence = 0, rows = 0;
+        try {
+            RowSource source = isBinary(in) ? new BinaryRows(in) : new CsvRows(in);
+            boolean more = true;
+            while (more) {
+                inFlight.acquire();
+                String[] batch = new String[BATCH_SIZE];
+                int n = 0;
+                String row;
+                while (n < BATCH_SIZE && (row = source.next()) != null) {
+                    if (types.isEmpty() || types.contains(typeOf(row))) batch[n++] = row;
+                    rows++;
+                }
+                more = source.hasMore();
+                work.put(new Batch(sequence++, batch, n));
+            }
+        } catch (InterruptedException e) {
+            return;
+        } catch (IOException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            totals[0] = rows;
+        }
+        try {
+            for (int i = 0; i < workers; i++) {
+                work.put(END);
+            }
+            // The writer stops once it has written this many batches.
+            done.put(new Batch(sequence, null, 0));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String typeOf(String row) {
+        int comma = row.indexOf(',');
+        return comma < 0 ? row : row.substring(0, comma);
+    }
+
+    private void transform(BlockingQueue<Batch> work, BlockingQueue<Batch> done,
+                           AtomicReference<Throwable> failure, AtomicLong rejected) {
+        VehicleRowParser parser = new VehicleRowParser();
+        try {
+            Batch batch;
+            while ((batch = work.take()) != END) {
+                int kept = 0;
+                try {
+                    for (int i = 0; i < batch.size; i++) {
+                        String row = accept(parser, batch.rows[i], rejected);
+                        if (row != null) batch.rows[kept++] = row;
+                    }
+                } catch (Throwable e) {
+                    // A user filter or transform threw. The batch can never be written, so the
+                    // writer is told to stop rather than wait for it; run() then reports e.
+                    failure.compareAndSet(null, e);
+                    done.put(ABORT);
+                    return;
+                }
+                batch.size = kept;
+                done.put(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // The row as the pipeline writes it, or null when it is filtered out or unparseable.
+    private String accept(VehicleRowParser parser, String row, AtomicLong rejected) {
+        Vehicle vehicle = parser.parse(row);
+        if (parser.getError() != null) {
+            EventSinks.get().publish(parser.getError(), null, 0, parser.getErrorMessage());
+        }
+        if (vehicle == null) {
+            rejected.incrementAndGet();
+            return null;
+        }
+        for (Predicate<Vehicle> filter : filters) {
+            if (!filter.test(vehicle)) return null;
+        }
+        for (Consumer<Vehicle> step : transforms) {
+            step.accept(vehicle);
+        }
+        return vehicle.toString();
+    }
+
+    private static void write(OutputStream out, Format format, Semaphore inFlight,
+                              BlockingQueue<Batch> done, long[] totals) throws IOException, InterruptedException {
+        Writer text = null;
+        DataOutputStream binary = null;
+        if (format == Format.BINARY) {
+            binary = new DataOutputStream(out);
+            binary.write(BINARY_MAGIC);
+        } else {
+            text = new OutputStreamWriter(out, Charset.defaultCharset());
+            text.write(FleetManager.CSV_HEADER);
+            text.write(System.lineSeparator());
+        }
+        // Batches finish out of order; hold the early ones until their turn.
+        Map<Long, Batch> pending = new HashMap<>();
+        long next = 0, end = Long.MAX_VALUE, written = 0;
+        while (next < end) {
+            Batch batch = done.take();
+            if (batch == ABORT) return;
+            if (batch.rows == null) {
+                end = batch.sequence;
+                continue;
+            }
+            pending.put(batch.sequence, batch);
+            while ((batch = pending.remove(next)) != null) {
+                for (int i = 0; i < batch.size; i++) {
+                    if (binary != null) {
+                        byte[] bytes = batch.rows[i].getBytes(StandardCharsets.UTF_8);
+                        binary.writeInt(bytes.length);
+                        binary.write(bytes);
+                    } else {
+                        text.write(batch.rows[i]);
+                        text.write(System.lineSeparator());
+                    }
+                }
+                written += batch.size;
+                next++;
+                inFlight.release();
+            }
+        }
+        if (binary != null) {
+            binary.writeInt(-1);
+            binary.flush();
+        } else {
+            text.flush();
+        }
+        totals[1] = written;
+    }
+
+    static boolean isBinary(BufferedInputStream in) throws IOException {
+        byte[] head = new byte[BINARY_MAGIC.length];
+        in.mark(head.length);
+        int n = in.readNBytes(head, 0, head.length);
+        in.reset();
+        return n == head.length && Arrays.equals(head, BINARY_MAGIC);
+    }
+
+    private interface RowSource {
+        // Next row, or null at the end of the input.
+        String next() throws IOException;
+        boolean hasMore();
+    }
+
+    private static final class CsvRows implements RowSource {
+        private final BufferedReader reader;
+        private boolean more = true;
+
+        CsvRows(InputStream in) throws IOException {
+            reader = new BufferedReader(new InputStreamReader(in, Charset.defaultCharset()), 1 << 16);
+            reader.readLine();
+        }
+
+        public String next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isEmpty());
+            if (line == null) more = false;
+            return line;
+        }
+
+        public boolean hasMore() {
+            return more;
+        }
+    }
+
+    private static final class BinaryRows implements RowSource {
+        private final DataInputStream in;
+        private boolean more = true;
+
+        BinaryRows(InputStream in) throws IOException {
+            this.in = new DataInputStream(in);
+            this.in.skipNBytes(BINARY_MAGIC.length);
+        }
+
+        public String next() throws IOException {
+            if (!more) return null;
+            int length = in.readInt();
+            if (length < 0) {
+                more = false;
+                return null;
+            }
+            return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+        }
+
+        public boolean hasMore() {
+            return more;
+        }
+    }
+}
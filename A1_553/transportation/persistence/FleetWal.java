@@ -0,0 +1,460 @@
+package transportation.persistence;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+import transportation.abstractclasses.Vehicle;
+import transportation.events.EventSinks;
+import transportation.events.FleetEvent;
+import transportation.exceptions.InvalidOperationException;
+import transportation.interfaces.FleetListener;
+import transportation.management.FleetManager;
+
+// Append-only write-ahead log of fleet mutations. Every add, remove or vehicle change appends one
+// small record, so persisting a mutation costs O(1) instead of rewriting the whole CSV.
+//
+// Records are full-state: a change writes the vehicle's current CSV line (its toString()), a
+// removal writes its ID. Replaying a record twice is therefore harmless, which keeps checkpoints
+// simple. On disk a directory holds:
+//   snapshot-<n>.csv   full fleet in the saveToFile format, taken when segment n was started
+//   wal-<n>.log        log segments; recovery loads the newest snapshot and replays segments >= n
+//
+// Records are buffered and written by a background thread that fsyncs once per group: whatever
+// arrives while a sync is running goes out with the next one, so concurrent writers share the
+// cost of a sync. groupCommitNanos optionally holds each group open a little longer. With
+// waitForSync each mutation returns only once its record is durable; inside a bulk operation
+// (FleetListener.batchStarted/batchFinished) the wait happens once, at the end. A record is
+// [length][crc32][type][payload]; a torn or corrupt tail ends the replay of that segment. Once a
+// write or sync has failed, every later mutation publishes LOG_FAILED and throws
+// UncheckedIOException rather than being dropped quietly.
+//
+// Compaction never reads the FleetManager. It closes the current segment and folds the previous
+// snapshot and every closed segment into a new snapshot, exactly as recovery would replay them,
+// so it can run on a background thread while the fleet keeps changing.
+public class FleetWal implements FleetListener, AutoCloseable {
+    private static final byte UPSERT = 1;
+    private static final byte REMOVE = 2;
+    private static final int RECORD_HEADER = 9;
+    private static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+    private static final long DEFAULT_COMPACT_AFTER_BYTES = 256L << 20;
+    private static final long DEFAULT_GROUP_COMMIT_NANOS = 0;
+
+    private final Path dir;
+    private final FleetManager manager;
+    private final boolean waitForSync;
+    private final long groupCommitNanos;
+    private final long segmentBytes;
+    private final long compactAfterBytes;
+
+    // Guarded by lock.
+    private final Object lock = new Object();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appendedSeq;
+    private long durableSeq;
+    private IOException failure;
+    private boolean closed;
+
+    // Guarded by ioLock.
+    private final Object ioLock = new Object();
+    private FileChannel segment;
+    private long segmentIndex;
+    private long segmentSize;
+
+    // Bulk operations the current thread is inside; its appends skip the per-record wait.
+    private final ThreadLocal<int[]> batchDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+    private volatile long bytesSinceCheckpoint;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    // Serializes checkpoints, so each folds the segments the previous one left behind.
+    private final Object compactLock = new Object();
+    private volatile Thread compactor;
+    private final Thread flusher;
+
+    private FleetWal(Path dir, FleetManager manager, long firstSegment, boolean waitForSync,
+                     long groupCommitNanos, long segmentBytes, long compactAfterBytes) throws IOException {
+        this.dir = dir;
+        this.manager = manager;
+        this.waitForSync = waitForSync;
+        this.groupCommitNanos = groupCommitNanos;
+        this.segmentBytes = segmentBytes;
+        this.compactAfterBytes = compactAfterBytes;
+        openSegment(firstSegment);
+        this.flusher = new Thread(this::flushLoop, "fleet-wal");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public static FleetWal open(Path dir, FleetManager manager) throws IOException {
+        return open(dir, manager, true, DEFAULT_GROUP_COMMIT_NANOS, DEFAULT_SEGMENT_BYTES, DEFAULT_COMPACT_AFTER_BYTES);
+    }
+
+    // Recovers the fleet stored in dir into manager (which must be empty), then starts logging
+    // every later mutation of manager. A log directory that does not exist yet is created.
+    public static FleetWal open(Path dir, FleetManager manager, boolean waitForSync, long groupCommitNanos,
+                                long segmentBytes, long compactAfterBytes) throws IOException {
+        if (manager.size() > 0) throw new IllegalArgumentException("Recovery needs an empty fleet");
+        Files.createDirectories(dir);
+
+        Map<String, String> state = new LinkedHashMap<>();
+        load(dir, Long.MAX_VALUE, state);
+        long lastSegment = Math.max(latest(dir, "snapshot-", ".csv"), 0) - 1;
+        for (long index : indexes(dir, "wal-", ".log")) {
+            lastSegment = Math.max(lastSegment, index);
+        }
+
+        for (String line : state.values()) {
+            try {
+                Vehicle vehicle = FleetManager.createVehicleFromString(line);
+                if (vehicle != null) manager.addVehicle(vehicle);
+            } catch (InvalidOperationException | RuntimeException e) {
+                EventSinks.get().publish(FleetEvent.Type.PARSE_FAILED, null, 0, e.getMessage());
+            }
+        }
+        EventSinks.get().publish(FleetEvent.Type.FLEET_RECOVERED, null, 0, dir.toString());
+
+        // Start a fresh segment so nothing is ever appended after a torn tail.
+        FleetWal wal = new FleetWal(dir, manager, lastSegment + 1, waitForSync, groupCommitNanos, segmentBytes, compactAfterBytes);
+        manager.addFleetListener(wal);
+        return wal;
+    }
+
+    // Fills state (ID to CSV line) from the newest snapshot below limit and the segments from that
+    // snapshot up to, not including, limit.
+    private static void load(Path dir, long limit, Map<String, String> state) throws IOException {
+        long base = -1;
+        for (long index : indexes(dir, "snapshot-", ".csv")) {
+            if (index < limit) base = index;
+        }
+        if (base >= 0) {
+            try (BufferedReader reader = Files.newBufferedReader(dir.resolve(snapshotName(base)), StandardCharsets.UTF_8)) {
+                String line = reader.readLine();
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(",", 3);
+                    if (parts.length >= 2) state.put(parts[1], line);
+                }
+            }
+        }
+        for (long index : indexes(dir, "wal-", ".log")) {
+            if (index >= base && index < limit) replay(dir.resolve(segmentName(index)), state);
+        }
+    }
+
+    private static void replay(Path file, Map<String, String> state) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            CRC32 crc = new CRC32();
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                try {
+                    int checksum = in.readInt();
+                    byte type = in.readByte();
+                    if (length < 0 || length > (64 << 20)) return;
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+                    crc.reset();
+                    crc.update(type);
+                    crc.update(payload);
+                    if ((int) crc.getValue() != checksum) return;
+
+                    String text = new String(payload, StandardCharsets.UTF_8);
+                    if (type == UPSERT) {
+                        String[] parts = text.split(",", 3);
+                        if (parts.length >= 2) state.put(parts[1], text);
+                    } else if (type == REMOVE) {
+                        state.remove(text);
+                    }
+                } catch (EOFException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void vehicleAdded(Vehicle vehicle) {
+        append(UPSERT, vehicle.toString());
+    }
+
+    @Override
+    public void vehicleRemoved(Vehicle vehicle) {
+        append(REMOVE, vehicle.getId());
+    }
+
+    @Override
+    public void vehicleChanged(Vehicle vehicle, Vehicle.Change change) {
+        append(UPSERT, vehicle.toString());
+    }
+
+    private void append(byte type, String text) {
+        byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + payload.length);
+        record.putInt(payload.length).putInt((int) crc.getValue()).put(type).put(payload);
+
+        long seq;
+        IOException broken;
+        synchronized (lock) {
+            if (closed) return;
+            broken = failure;
+            if (broken == null) {
+                pending.write(record.array(), 0, record.capacity());
+                seq = ++appendedSeq;
+                lock.notifyAll();
+            } else {
+                seq = 0;
+            }
+        }
+        if (broken != null) {
+            reject(broken);
+        }
+        if (waitForSync && batchDepth.get()[0] == 0) {
+            IOException failed = awaitDurable(seq);
+            if (failed != null) reject(failed);
+        }
+        if (bytesSinceCheckpoint >= compactAfterBytes && compacting.compareAndSet(false, true)) {
+            Thread t = new Thread(this::compactInBackground, "fleet-wal-compact");
+            t.setDaemon(true);
+            compactor = t;
+            t.start();
+        }
+    }
+
+    @Override
+    public void batchStarted() {
+        batchDepth.get()[0]++;
+    }
+
+    @Override
+    public void batchFinished() {
+        int[] depth = batchDepth.get();
+        if (depth[0] > 0 && --depth[0] == 0 && waitForSync) {
+            long seq;
+            synchronized (lock) {
+                seq = appendedSeq;
+            }
+            IOException failed = awaitDurable(seq);
+            if (failed != null) reject(failed);
+        }
+    }
+
+    // Once the log has failed, every mutation is told so: the in-memory change stands, but it
+    // would not survive a restart.
+    private static void reject(IOException cause) {
+        EventSinks.get().publish(FleetEvent.Type.LOG_FAILED, null, 0, cause.toString());
+        throw new UncheckedIOException("Fleet log failed; change not persisted", cause);
+    }
+
+    private void compactInBackground() {
+        try {
+            checkpoint();
+        } catch (IOException e) {
+            EventSinks.get().publish(FleetEvent.Type.LOG_FAILED, null, 0, e.getMessage());
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    // Returns the log's failure if it stopped seq from becoming durable, otherwise null.
+    private IOException awaitDurable(long seq) {
+        synchronized (lock) {
+            while (durableSeq < seq && failure == null && flusher.isAlive()) {
+                try {
+                    lock.wait(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+            return durableSeq < seq ? failure : null;
+        }
+    }
+
+    // Blocks until everything logged so far is on disk.
+    public void sync() throws IOException {
+        long seq;
+        synchronized (lock) {
+            seq = appendedSeq;
+        }
+        awaitDurable(seq);
+        synchronized (lock) {
+            if (failure != null) throw failure;
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            synchronized (lock) {
+                while (pending.size() == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.size() == 0) return;
+            }
+            // Give concurrent writers a moment to join this group before paying for the sync.
+            if (groupCommitNanos > 0) {
+                LockSupport.parkNanos(groupCommitNanos);
+            }
+            try {
+                flush();
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                EventSinks.get().publish(FleetEvent.Type.LOG_FAILED, null, 0, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        synchronized (ioLock) {
+            byte[] batch;
+            long seq;
+            synchronized (lock) {
+                if (pending.size() == 0) return;
+                batch = pending.toByteArray();
+                pending.reset();
+                seq = appendedSeq;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(batch);
+            while (buffer.hasRemaining()) {
+                segment.write(buffer);
+            }
+            segment.force(false);
+            segmentSize += batch.length;
+            bytesSinceCheckpoint += batch.length;
+            if (segmentSize >= segmentBytes) {
+                openSegment(segmentIndex + 1);
+            }
+            synchronized (lock) {
+                durableSeq = seq;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    // Caller holds ioLock (or is the constructor).
+    private void openSegment(long index) throws IOException {
+        if (segment != null) {
+            segment.close();
+        }
+        segment = FileChannel.open(dir.resolve(segmentName(index)),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentIndex = index;
+        segmentSize = segment.size();
+    }
+
+    // Compacts the log: starts a new segment, folds the previous snapshot and every closed segment
+    // into snapshot-<new segment>, then deletes those older files. Safe to call from any thread.
+    public void checkpoint() throws IOException {
+        synchronized (compactLock) {
+            long base;
+            synchronized (ioLock) {
+                flush();
+                openSegment(segmentIndex + 1);
+                base = segmentIndex;
+                bytesSinceCheckpoint = 0;
+            }
+            // Exactly the records before segment base; later ones are replayed on top of it.
+            Map<String, String> state = new LinkedHashMap<>();
+            load(dir, base, state);
+            Path target = dir.resolve(snapshotName(base));
+            Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+            try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                out.write(FleetManager.CSV_HEADER);
+                out.newLine();
+                for (String line : state.values()) {
+                    out.write(line);
+                    out.newLine();
+                }
+            }
+            FleetCheckpointer.install(tmp, target);
+
+            for (long index : indexes(dir, "snapshot-", ".csv")) {
+                if (index < base) Files.deleteIfExists(dir.resolve(snapshotName(index)));
+            }
+            for (long index : indexes(dir, "wal-", ".log")) {
+                if (index < base) Files.deleteIfExists(dir.resolve(segmentName(index)));
+            }
+        }
+    }
+
+    public long getSegmentIndex() {
+        synchronized (ioLock) {
+            return segmentIndex;
+        }
+    }
+
+    public long getBytesSinceCheckpoint() {
+        return bytesSinceCheckpoint;
+    }
+
+    @Override
+    public void close() throws IOException {
+        manager.removeFleetListener(this);
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+            Thread running = compactor;
+            if (running != null) running.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (ioLock) {
+            flush();
+            segment.close();
+        }
+        synchronized (lock) {
+            if (failure != null) throw failure;
+        }
+    }
+
+    private static String segmentName(long index) {
+        return String.format("wal-%012d.log", index);
+    }
+
+    private static String snapshotName(long index) {
+        return String.format("snapshot-%012d.csv", index);
+    }
+
+    private static long latest(Path dir, String prefix, String suffix) throws IOException {
+        List<Long> all = indexes(dir, prefix, suffix);
+        return all.isEmpty() ? -1 : all.get(all.size() - 1);
+    }
+
+    // Indexes of the files named prefix<number>suffix, ascending.
+    private static List<Long> indexes(Path dir, String prefix, String suffix) throws IOException {
+        List<Long> result = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    result.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    // Not one of ours.
+                }
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+}
@@ -0,0 +1,352 @@
+package transportation.persistence;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+import java.util.*;
+import transportation.abstractclasses.Vehicle;
+import transportation.events.EventSinks;
+import transportation.events.FleetEvent;
+import transportation.exceptions.InvalidOperationException;
+import transportation.management.FleetManager;
+import transportation.vehicles.*;
+
+// Read-only view of a fleet CSV that parses rows only when they are asked for. Opening makes one
+// byte-level pass over the file and keeps, per row, its byte offset, its type and a hash of its ID
+// (about 20 bytes per row with the ID table); nothing else is held in memory. Vehicles are built
+// on demand with FleetManager.createVehicleFromString and kept in an LRU cache of bounded size.
+//
+// The index can be saved next to the file as <file>.idx. It is reused as long as the file's size
+// and modification time still match, so reopening skips the scan. Vehicles returned here belong
+// to no FleetManager; changing them does not change the file. Only uncompressed files can be
+// opened this way, since rows are read by offset.
+public class LazyFleetFile implements AutoCloseable {
+    private static final int DEFAULT_CACHE_SIZE = 10_000;
+    private static final int SCAN_BUFFER = 1 << 20;
+    private static final int SIDECAR_MAGIC = 0x46494458; // "FIDX"
+    private static final int SIDECAR_VERSION = 1;
+
+    private static final String[] TYPE_NAMES = {"Car", "Truck", "Bus", "Airplane", "CargoShip"};
+    private static final Class<?>[] TYPE_CLASSES = {Car.class, Truck.class, Bus.class, Airplane.class, CargoShip.class};
+    private static final byte UNKNOWN_TYPE = -1;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final Charset charset = Charset.defaultCharset();
+
+    private int rows;
+    private long[] offsets;
+    private byte[] types;
+    private int[] idHashes;
+    // Open addressing over idHashes; holds row + 1, 0 marks an empty slot.
+    private int[] idTable;
+    private final int[] typeCounts = new int[TYPE_NAMES.length];
+
+    private final Map<Integer, Vehicle> cache;
+
+    private LazyFleetFile(Path file, int cacheSize) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.cache = new LinkedHashMap<Integer, Vehicle>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Vehicle> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public static LazyFleetFile open(String filename) throws IOException {
+        return open(filename, DEFAULT_CACHE_SIZE, true);
+    }
+
+    // With useSidecar the index is read from <file>.idx when it is current, and written there
+    // after a scan otherwise. A sidecar that cannot be written (read-only directory, say) only
+    // costs the next open a rescan; it is reported as INDEX_WRITE_FAILED.
+    public static LazyFleetFile open(String filename, int cacheSize, boolean useSidecar) throws IOException {
+        if (cacheSize <= 0) throw new IllegalArgumentException("Cache size must be positive");
+        Path file = Paths.get(filename);
+        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(filename))) {
+            if (FleetFiles.detect(in) != Compression.NONE) {
+                throw new IOException("Lazy open needs an uncompressed fleet file: " + filename);
+            }
+        }
+        LazyFleetFile fleetFile = new LazyFleetFile(file, cacheSize);
+        try {
+            Path sidecar = sidecarFor(file);
+            if (!useSidecar || !fleetFile.readSidecar(sidecar)) {
+                fleetFile.scan();
+                if (useSidecar) {
+                    try {
+                        fleetFile.writeSidecar(sidecar);
+                    } catch (IOException e) {
+                        EventSinks.get().publish(FleetEvent.Type.INDEX_WRITE_FAILED, null, 0, e.getMessage());
+                    }
+                }
+            }
+            fleetFile.buildIndexes();
+        } catch (IOException | RuntimeException e) {
+            fleetFile.close();
+            throw e;
+        }
+        return fleetFile;
+    }
+
+    private static Path sidecarFor(Path file) {
+        return file.resolveSibling(file.getFileName() + ".idx");
+    }
+
+    // One pass over the raw bytes. Only the first two fields of each row are looked at.
+    private void scan() throws IOException {
+        offsets = new long[1024];
+        types = new byte[1024];
+        idHashes = new int[1024];
+        rows = 0;
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(SCAN_BUFFER);
+        byte[] typeName = new byte[16];
+        int typeLength = 0;
+        int field = 0;
+        int hash = 0;
+        long rowStart = 0;
+        long rowLength = 0;
+        boolean header = true;
+        long position = 0;
+
+        while (true) {
+            buffer.clear();
+            int n = channel.read(buffer, position);
+            if (n <= 0) break;
+            buffer.flip();
+            for (int i = 0; i < n; i++) {
+                byte b = buffer.get(i);
+                if (b == '\n') {
+                    if (!header && rowLength > 0) addRow(rowStart, typeOf(typeName, typeLength), hash);
+                    header = false;
+                    rowStart = position + i + 1;
+                    rowLength = 0;
+                    field = 0;
+                    typeLength = 0;
+                    hash = 0;
+                    continue;
+                }
+                if (b != '\r') rowLength++;
+                if (b == ',') {
+                    field++;
+                } else if (field == 0) {
+                    if (typeLength < typeName.length) typeName[typeLength] = b;
+                    typeLength++;
+                } else if (field == 1) {
+                    hash = 31 * hash + b;
+                }
+            }
+            position += n;
+        }
+        if (!header && rowLength > 0) addRow(rowStart, typeOf(typeName, typeLength), hash);
+    }
+
+    private void addRow(long offset, byte type, int hash) {
+        if (rows == offsets.length) {
+            int capacity = rows * 2;
+            offsets = Arrays.copyOf(offsets, capacity);
+            types = Arrays.copyOf(types, capacity);
+            idHashes = Arrays.copyOf(idHashes, capacity);
+        }
+        offsets[rows] = offset;
+        types[rows] = type;
+        idHashes[rows] = hash;
+        rows++;
+    }
+
+    private static byte typeOf(byte[] name, int length) {
+        for (byte t = 0; t < TYPE_NAMES.length; t++) {
+            String candidate = TYPE_NAMES[t];
+            if (candidate.length() != length) continue;
+            boolean same = true;
+            for (int i = 0; i < length && same; i++) {
+                same = name[i] == candidate.charAt(i);
+            }
+            if (same) return t;
+        }
+        return UNKNOWN_TYPE;
+    }
+
+    private int hashOf(String id) {
+        int hash = 0;
+        for (byte b : id.getBytes(charset)) {
+            hash = 31 * hash + b;
+        }
+        return hash;
+    }
+
+    private static int slot(int hash, int mask) {
+        int h = hash * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void buildIndexes() {
+        int capacity = 2;
+        while (capacity < rows + rows / 2L) capacity <<= 1;
+        idTable = new int[capacity];
+        int mask = capacity - 1;
+        for (int row = 0; row < rows; row++) {
+            int s = slot(idHashes[row], mask);
+            while (idTable[s] != 0) s = (s + 1) & mask;
+            idTable[s] = row + 1;
+        }
+
+        for (int row = 0; row < rows; row++) {
+            if (types[row] != UNKNOWN_TYPE) typeCounts[types[row]]++;
+        }
+    }
+
+    private boolean readSidecar(Path sidecar) throws IOException {
+        if (!Files.exists(sidecar)) return false;
+        try (FileChannel in = FileChannel.open(sidecar, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+            if (in.read(head, 0) < 32) return false;
+            head.flip();
+            if (head.getInt() != SIDECAR_MAGIC || head.getInt() != SIDECAR_VERSION) return false;
+            if (head.getLong() != fileSize) return false;
+            if (head.getLong() != Files.getLastModifiedTime(file).toMillis()) return false;
+            int count = head.getInt();
+            long expected = 32 + count * 13L;
+            if (count < 0 || in.size() != expected) return false;
+
+            ByteBuffer body = ByteBuffer.allocateDirect((int) Math.min(expected - 32, Integer.MAX_VALUE)).order(ByteOrder.LITTLE_ENDIAN);
+            long position = 32;
+            while (body.hasRemaining()) {
+                int n = in.read(body, position);
+                if (n < 0) return false;
+                position += n;
+            }
+            body.flip();
+            rows = count;
+            offsets = new long[count];
+            idHashes = new int[count];
+            types = new byte[count];
+            body.asLongBuffer().get(offsets);
+            body.position(count * 8);
+            body.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(idHashes);
+            body.position(count * 12);
+            body.get(types);
+            return true;
+        }
+    }
+
+    // Written to a temporary file and renamed, so a crash never leaves a half-written index.
+    private void writeSidecar(Path sidecar) throws IOException {
+        Path tmp = sidecar.resolveSibling(sidecar.getFileName() + ".tmp");
+        long size = 32 + rows * 13L;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Index of " + rows + " rows is too large for a sidecar");
+        }
+        ByteBuffer out = ByteBuffer.allocateDirect((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(SIDECAR_MAGIC).putInt(SIDECAR_VERSION).putLong(fileSize)
+            .putLong(Files.getLastModifiedTime(file).toMillis()).putInt(rows).putInt(0);
+        out.asLongBuffer().put(offsets, 0, rows);
+        out.position(32 + rows * 8);
+        out.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(idHashes, 0, rows);
+        out.position(32 + rows * 12);
+        out.put(types, 0, rows);
+        out.flip();
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+        Files.move(tmp, sidecar, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    public int countByType(Class<?> type) {
+        int count = 0;
+        for (int t = 0; t < TYPE_CLASSES.length; t++) {
+            if (type.isAssignableFrom(TYPE_CLASSES[t])) count += typeCounts[t];
+        }
+        return count;
+    }
+
+    // Row numbers, in file order, of the rows whose type is type or a subtype of it.
+    public int[] rowsOfType(Class<?> type) {
+        boolean[] wanted = new boolean[TYPE_CLASSES.length];
+        for (int t = 0; t < TYPE_CLASSES.length; t++) {
+            wanted[t] = type.isAssignableFrom(TYPE_CLASSES[t]);
+        }
+        int[] result = new int[countByType(type)];
+        int n = 0;
+        for (int row = 0; row < rows && n < result.length; row++) {
+            byte t = types[row];
+            if (t != UNKNOWN_TYPE && wanted[t]) result[n++] = row;
+        }
+        return result;
+    }
+
+    public List<Vehicle> searchByType(Class<?> type) throws IOException {
+        List<Vehicle> result = new ArrayList<>();
+        for (int row : rowsOfType(type)) {
+            Vehicle v = getVehicle(row);
+            if (v != null) result.add(v);
+        }
+        return result;
+    }
+
+    public Vehicle getVehicleById(String id) throws IOException {
+        int hash = hashOf(id);
+        int mask = idTable.length - 1;
+        for (int s = slot(hash, mask); idTable[s] != 0; s = (s + 1) & mask) {
+            int row = idTable[s] - 1;
+            if (idHashes[row] != hash) continue;
+            Vehicle v = getVehicle(row);
+            if (v != null && v.getId().equals(id)) return v;
+        }
+        return null;
+    }
+
+    // Null when the row cannot be parsed, as loadFromFile would skip it.
+    public synchronized Vehicle getVehicle(int row) throws IOException {
+        Vehicle cached = cache.get(row);
+        if (cached != null) return cached;
+        try {
+            Vehicle v = FleetManager.createVehicleFromString(readLine(row));
+            if (v != null) cache.put(row, v);
+            return v;
+        } catch (InvalidOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    public String readLine(int row) throws IOException {
+        if (row < 0 || row >= rows) throw new IndexOutOfBoundsException("Row " + row + " of " + rows);
+        long start = offsets[row];
+        long end = row + 1 < rows ? offsets[row + 1] : fileSize;
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) break;
+        }
+        int length = buffer.position();
+        byte[] bytes = buffer.array();
+        // The span may also hold the newline and blank lines before the next row.
+        int lineEnd = 0;
+        while (lineEnd < length && bytes[lineEnd] != '\n') lineEnd++;
+        if (lineEnd > 0 && bytes[lineEnd - 1] == '\r') lineEnd--;
+        return new String(bytes, 0, lineEnd, charset);
+    }
+
+    public synchronized int getCachedCount() {
+        return cache.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,128 @@
+package transportation.persistence;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Reads a source stream on its own thread, a few chunks ahead of the consumer. Wrapping a
+// decompressing stream in it lets decompression run in parallel with whatever parses the output.
+class PipelinedInputStream extends InputStream {
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int CHUNKS_AHEAD = 8;
+    private static final byte[] END = new byte[0];
+    private static final long CLOSE_WAIT_MILLIS = 1000;
+
+    private final InputStream source;
+    private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(CHUNKS_AHEAD);
+    private final Thread producer;
+    private volatile IOException failure;
+    private volatile boolean closed;
+    private final AtomicBoolean sourceClosed = new AtomicBoolean();
+    private byte[] current = new byte[0];
+    private int position;
+    private boolean ended;
+
+    PipelinedInputStream(InputStream source, String name) {
+        this.source = source;
+        this.producer = new Thread(this::produce, name);
+        this.producer.setDaemon(true);
+        this.producer.start();
+    }
+
+    private void produce() {
+        try {
+            produceChunks();
+        } finally {
+            // close() gave up waiting for a read that was still running; the source is ours to close.
+            if (closed) closeSource();
+        }
+    }
+
+    private void produceChunks() {
+        try {
+            while (true) {
+                byte[] chunk = new byte[CHUNK_SIZE];
+                int filled = 0;
+                int n;
+                while (filled < CHUNK_SIZE && (n = source.read(chunk, filled, CHUNK_SIZE - filled)) > 0) {
+                    filled += n;
+                }
+                if (filled > 0) {
+                    chunks.put(filled == CHUNK_SIZE ? chunk : Arrays.copyOf(chunk, filled));
+                }
+                if (filled < CHUNK_SIZE) break;
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            return;
+        }
+        try {
+            chunks.put(END);
+        } catch (InterruptedException e) {
+            // Consumer closed the stream.
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (ended) return false;
+        try {
+            current = chunks.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for input");
+        }
+        position = 0;
+        if (current == END) {
+            ended = true;
+            if (failure != null) throw failure;
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == current.length && !fill()) return -1;
+        return current[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (position == current.length && !fill()) return -1;
+        int n = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    // Stops the producer and closes the source. An interrupt does not cut short a blocking file
+    // read, so the source is only closed here once the producer has left it; if it is still
+    // inside a read after CLOSE_WAIT_MILLIS, the producer closes the source itself on the way out.
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        producer.interrupt();
+        try {
+            producer.join(CLOSE_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!producer.isAlive()) {
+            closeSource();
+        }
+    }
+
+    private void closeSource() {
+        if (sourceClosed.compareAndSet(false, true)) {
+            try {
+                source.close();
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+            }
+        }
+    }
+}
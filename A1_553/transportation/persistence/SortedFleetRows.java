@@ -0,0 +1,164 @@
+package transportation.persistence;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+// Rows of a fleet file (header skipped) in ID order, produced by an external merge sort: the file
+// is read runSize rows at a time, each run is sorted in memory and spilled to a BLOCK-compressed
+// temporary file, and the runs are merged with a heap. Memory stays at about one run plus one
+// buffered row per spilled run. A file that fits in one run never touches the disk.
+//
+// Rows sharing an ID are returned as one: the first of them in file order, the row
+// FleetManager.loadFromFile keeps.
+class SortedFleetRows implements AutoCloseable {
+    private static final class Row {
+        final String id;
+        final String line;
+
+        Row(String line) {
+            this.line = line;
+            int start = line.indexOf(',') + 1;
+            int end = line.indexOf(',', start);
+            this.id = start == 0 ? "" : line.substring(start, end < 0 ? line.length() : end);
+        }
+    }
+
+    private static final class Run {
+        final BufferedReader reader;
+        final int index;
+        Row head;
+
+        Run(BufferedReader reader, int index) {
+            this.reader = reader;
+            this.index = index;
+        }
+
+        boolean advance() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isEmpty());
+            head = line == null ? null : new Row(line);
+            return head != null;
+        }
+    }
+
+    private final List<Path> spilled = new ArrayList<>();
+    private final List<Run> runs = new ArrayList<>();
+    // Ties go to the earlier run, which holds the earlier rows of the file.
+    private final PriorityQueue<Run> heap = new PriorityQueue<>((a, b) -> {
+        int c = a.head.id.compareTo(b.head.id);
+        return c != 0 ? c : Integer.compare(a.index, b.index);
+    });
+    private Iterator<Row> memory;
+    private Row pending;
+    private long rowsRead;
+
+    SortedFleetRows(String filename, int runSize, Path tempDir) throws IOException {
+        if (runSize <= 0) throw new IllegalArgumentException("Run size must be positive");
+        try (BufferedReader reader = FleetFiles.openReader(filename)) {
+            reader.readLine();
+            List<Row> run = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                run.add(new Row(line));
+                rowsRead++;
+                if (run.size() == runSize) {
+                    spill(run, tempDir);
+                    run.clear();
+                }
+            }
+            // List.sort is stable, so equal IDs keep their file order.
+            run.sort(Comparator.comparing(r -> r.id));
+            if (spilled.isEmpty()) {
+                memory = run.iterator();
+            } else {
+                spill(run, tempDir);
+            }
+            // Inside the guard, so a failure here still closes the runs opened so far and deletes
+            // every spilled file.
+            for (int i = 0; i < spilled.size(); i++) {
+                Run r = new Run(FleetFiles.openReader(spilled.get(i).toString()), i);
+                runs.add(r);
+                if (r.advance()) heap.add(r);
+            }
+            pending = pull();
+        } catch (IOException | RuntimeException e) {
+            try {
+                close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    private void spill(List<Row> run, Path tempDir) throws IOException {
+        if (run.isEmpty()) return;
+        run.sort(Comparator.comparing(r -> r.id));
+        Path file = Files.createTempFile(tempDir, "fleet-run-", ".flz");
+        spilled.add(file);
+        try (Writer out = FleetFiles.openWriter(file.toString(), Compression.BLOCK)) {
+            for (Row r : run) {
+                out.write(r.line);
+                out.write('\n');
+            }
+        }
+    }
+
+    private Row pull() throws IOException {
+        if (memory != null) {
+            return memory.hasNext() ? memory.next() : null;
+        }
+        Run r = heap.poll();
+        if (r == null) return null;
+        Row row = r.head;
+        if (r.advance()) heap.add(r);
+        return row;
+    }
+
+    long getRowsRead() {
+        return rowsRead;
+    }
+
+    // ID of the next row, or null at the end.
+    String peekId() {
+        return pending == null ? null : pending.id;
+    }
+
+    // Next row in ID order; later rows with the same ID are skipped. Equal IDs come out in file
+    // order (stable sort within a run, earlier run first across runs), so the first is kept.
+    String next() throws IOException {
+        if (pending == null) return null;
+        Row row = pending;
+        pending = pull();
+        while (pending != null && pending.id.equals(row.id)) {
+            pending = pull();
+        }
+        return row.line;
+    }
+
+    @Override
+    // Closes every run and deletes every spilled file even if one of them fails; the first
+    // failure is rethrown afterwards.
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Run r : runs) {
+            try {
+                r.reader.close();
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+            }
+        }
+        for (Path file : spilled) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+            }
+        }
+        if (failure != null) throw failure;
+    }
+}
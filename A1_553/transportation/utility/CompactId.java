@@ -0,0 +1,56 @@
+package transportation.utility;
+
+// Packs vehicle IDs of the usual prefix+number shape (C001, T002, BUS12345) into a long: up to
+// four letters A-Z and up to eleven digits, leading zeros kept. IDs of any other shape return
+// NONE and stay strings.
+//
+// Layout, high to low: prefix length (3 bits), four letters (5 bits each, A = 1), digit count
+// (4 bits), number (37 bits).
+public final class CompactId {
+    public static final long NONE = -1;
+
+    private static final int MAX_LETTERS = 4;
+    private static final int MAX_DIGITS = 11;
+
+    private CompactId() {
+    }
+
+    public static long pack(String id) {
+        return pack(id, 0, id.length());
+    }
+
+    public static long pack(CharSequence text, int start, int end) {
+        int i = start;
+        long letters = 0;
+        while (i < end && i - start < MAX_LETTERS && text.charAt(i) >= 'A' && text.charAt(i) <= 'Z') {
+            letters = letters << 5 | (text.charAt(i) - 'A' + 1);
+            i++;
+        }
+        int prefixLength = i - start;
+        int digits = end - i;
+        if (prefixLength == 0 || digits == 0 || digits > MAX_DIGITS) return NONE;
+        long number = 0;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') return NONE;
+            number = number * 10 + (c - '0');
+        }
+        letters <<= 5 * (MAX_LETTERS - prefixLength);
+        return (long) prefixLength << 61 | letters << 41 | (long) digits << 37 | number;
+    }
+
+    public static String unpack(long packed) {
+        int prefixLength = (int) (packed >>> 61);
+        int digits = (int) (packed >>> 37) & 0xF;
+        char[] text = new char[prefixLength + digits];
+        for (int i = 0; i < prefixLength; i++) {
+            text[i] = (char) ('A' - 1 + ((packed >>> (56 - 5 * i)) & 0x1F));
+        }
+        long number = packed & ((1L << 37) - 1);
+        for (int i = text.length - 1; i >= prefixLength; i--) {
+            text[i] = (char) ('0' + number % 10);
+            number /= 10;
+        }
+        return new String(text);
+    }
+}
@@ -1,15 +1,15 @@
-package transportation.utility;
-
-import java.util.Comparator;
-import transportation.abstractclasses.Vehicle;
-
-
-public class EfficiencyComparator implements Comparator<Vehicle> {
-
-
-    @Override
-    public int compare(Vehicle v1, Vehicle v2) {
-
-        return Double.compare(v2.calculateFuelEfficiency(), v1.calculateFuelEfficiency());
-    }
-}
+package transportation.utility;
+
+import java.util.Comparator;
+import transportation.abstractclasses.Vehicle;
+
+
+public class EfficiencyComparator implements Comparator<Vehicle> {
+
+
+    @Override
+    public int compare(Vehicle v1, Vehicle v2) {
+
+        return Double.compare(v2.getFuelEfficiency(), v1.getFuelEfficiency());
+    }
+}
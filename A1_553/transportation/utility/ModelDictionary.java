@@ -0,0 +1,111 @@
+package transportation.utility;
+
+import java.util.Arrays;
+
+// Process-wide dictionary of model names. A fleet of millions of vehicles typically has a few
+// hundred models, so every Vehicle keeps the dictionary's copy of its model instead of its own,
+// and loaders look models up straight from the row without cutting a substring. Each model also
+// gets a small int code for column-oriented callers.
+//
+// Reads are lock-free against an immutable table; inserts are serialized and republish the table.
+// After MAX_MODELS distinct names, new names are returned as they are rather than interned, so a
+// file of unique junk cannot grow the dictionary without bound.
+public final class ModelDictionary {
+    private static final int MAX_MODELS = 1 << 16;
+
+    private static final class Table {
+        final String[] keys;
+        final int[] codes;
+        final String[] models;
+
+        Table(int capacity, String[] models) {
+            this.keys = new String[capacity];
+            this.codes = new int[capacity];
+            this.models = models;
+        }
+    }
+
+    private static volatile Table table = new Table(1024, new String[0]);
+
+    private ModelDictionary() {
+    }
+
+    public static String intern(String model) {
+        if (model == null) return null;
+        Table t = table;
+        int mask = t.keys.length - 1;
+        for (int i = mix(model.hashCode()) & mask; t.keys[i] != null; i = (i + 1) & mask) {
+            if (t.keys[i].equals(model)) return t.keys[i];
+        }
+        return insert(model);
+    }
+
+    // Same as intern(text.subSequence(start, end).toString()) but allocates only for a new model.
+    public static String intern(CharSequence text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        Table t = table;
+        int mask = t.keys.length - 1;
+        for (int i = mix(hash) & mask; t.keys[i] != null; i = (i + 1) & mask) {
+            if (matches(t.keys[i], hash, text, start, end)) return t.keys[i];
+        }
+        return insert(text.subSequence(start, end).toString());
+    }
+
+    private static boolean matches(String key, int hash, CharSequence text, int start, int end) {
+        if (key.length() != end - start || key.hashCode() != hash) return false;
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != text.charAt(start + i)) return false;
+        }
+        return true;
+    }
+
+    // Code of an interned model, or -1 if the model is not in the dictionary.
+    public static int code(String model) {
+        if (model == null) return -1;
+        Table t = table;
+        int mask = t.keys.length - 1;
+        for (int i = mix(model.hashCode()) & mask; t.keys[i] != null; i = (i + 1) & mask) {
+            if (t.keys[i].equals(model)) return t.codes[i];
+        }
+        return -1;
+    }
+
+    public static String model(int code) {
+        return table.models[code];
+    }
+
+    public static int size() {
+        return table.models.length;
+    }
+
+    private static synchronized String insert(String model) {
+        Table t = table;
+        int mask = t.keys.length - 1;
+        int i = mix(model.hashCode()) & mask;
+        for (; t.keys[i] != null; i = (i + 1) & mask) {
+            if (t.keys[i].equals(model)) return t.keys[i];
+        }
+        int code = t.models.length;
+        if (code == MAX_MODELS) return model;
+        String[] models = Arrays.copyOf(t.models, code + 1);
+        models[code] = model;
+        // Grow at half full so probe runs stay short.
+        Table next = new Table((code + 1) * 2 > t.keys.length ? t.keys.length * 2 : t.keys.length, models);
+        int nextMask = next.keys.length - 1;
+        for (int c = 0; c < models.length; c++) {
+            int j = mix(models[c].hashCode()) & nextMask;
+            while (next.keys[j] != null) j = (j + 1) & nextMask;
+            next.keys[j] = models[c];
+            next.codes[j] = c;
+        }
+        table = next;
+        return model;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,36 @@
+package transportation.utility;
+
+// Status codes returned by the try* vehicle operations in place of exceptions.
+public final class OperationStatus {
+    public static final int OK = 0;
+    public static final int INVALID_ARGUMENT = 1;
+    public static final int INVALID_OPERATION = 2;
+    public static final int OVERLOAD = 3;
+    public static final int INSUFFICIENT_FUEL = 4;
+    public static final int FAILED = 5;
+    public static final int NOT_FOUND = 6;
+    public static final int NOT_SUPPORTED = 7;
+    public static final int ABORTED = 8;
+
+    private OperationStatus() {
+    }
+
+    public static boolean isOk(int status) {
+        return status == OK;
+    }
+
+    public static String describe(int status) {
+        switch (status) {
+            case OK: return "OK";
+            case INVALID_ARGUMENT: return "Invalid argument";
+            case INVALID_OPERATION: return "Invalid operation";
+            case OVERLOAD: return "Capacity exceeded";
+            case INSUFFICIENT_FUEL: return "Not enough fuel";
+            case FAILED: return "Failed";
+            case NOT_FOUND: return "Vehicle not found";
+            case NOT_SUPPORTED: return "Operation not supported by vehicle";
+            case ABORTED: return "Not applied; another item in the batch failed";
+            default: return "Unknown status " + status;
+        }
+    }
+}
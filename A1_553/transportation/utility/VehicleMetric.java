@@ -0,0 +1,47 @@
+package transportation.utility;
+
+import transportation.abstractclasses.Vehicle;
+import transportation.interfaces.CargoCarrier;
+import transportation.interfaces.FuelConsumable;
+import transportation.interfaces.PassengerCarrier;
+
+public enum VehicleMetric {
+    TOTAL_MILEAGE(Vehicle.Change.MILEAGE),
+    MAX_SPEED(null),
+    FUEL_LEVEL(Vehicle.Change.FUEL),
+    CURRENT_CARGO(Vehicle.Change.CARGO),
+    AVAILABLE_SEATS(Vehicle.Change.PASSENGERS);
+
+    private final Vehicle.Change change;
+
+    VehicleMetric(Vehicle.Change change) {
+        this.change = change;
+    }
+
+    // The change that can move this metric; null when the value is fixed at construction.
+    public Vehicle.Change getChange() {
+        return change;
+    }
+
+    public boolean appliesTo(Vehicle vehicle) {
+        switch (this) {
+            case FUEL_LEVEL: return vehicle instanceof FuelConsumable;
+            case CURRENT_CARGO: return vehicle instanceof CargoCarrier;
+            case AVAILABLE_SEATS: return vehicle instanceof PassengerCarrier;
+            default: return true;
+        }
+    }
+
+    public double extract(Vehicle vehicle) {
+        switch (this) {
+            case TOTAL_MILEAGE: return vehicle.getTotalMileage();
+            case MAX_SPEED: return vehicle.getMaxSpeed();
+            case FUEL_LEVEL: return ((FuelConsumable) vehicle).getFuelLevel();
+            case CURRENT_CARGO: return ((CargoCarrier) vehicle).getCurrentCargo();
+            case AVAILABLE_SEATS:
+                PassengerCarrier carrier = (PassengerCarrier) vehicle;
+                return carrier.getPassengerCapacity() - carrier.getCurrentPassengers();
+            default: throw new IllegalStateException("Unknown metric " + this);
+        }
+    }
+}
@@ -1,104 +1,171 @@
-package transportation.vehicles;
-import transportation.exceptions.*;
-import transportation.abstractclasses.*;
-import transportation.interfaces.*;
-
-public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainable, FuelConsumable {
-    private double currentCargo, fuelLevel;
-    private boolean maintenanceNeeded;
-    private static final double CARGO_CAPACITY = 50000.0;
-    
-    public CargoShip(String id, String model, double maxSpeed, boolean hasSail) throws InvalidOperationException {
-        super(id, model, maxSpeed, hasSail);
-        this.currentCargo = 0;
-        this.fuelLevel = hasSail ? 0 : 100;
-        this.maintenanceNeeded = false;
-    }
-    
-    @Override
-    public void move(double distance) throws Exception {
-        if (distance < 0) throw new InvalidOperationException("Distance cannot be negative");
-        
-        if (!hasSail()) {
-            double fuelNeeded = distance / calculateFuelEfficiency();
-            if (fuelLevel < fuelNeeded) {
-                throw new InsufficientFuelException("Not enough fuel for the journey");
-            }
-            fuelLevel -= fuelNeeded;
-        }
-        
-        addMileage(distance);
-        System.out.println("CargoShip " + getId() + " sailing with cargo for " + distance + " km");
-    }
-    
-    @Override
-    public double calculateFuelEfficiency() { 
-        return hasSail() ? 0 : 4.0; 
-    }
-    
-    @Override
-    public void refuel(double amount) throws InvalidOperationException {
-        if (hasSail()) throw new InvalidOperationException("Sail-powered ships don't need fuel");
-        if (amount <= 0) throw new InvalidOperationException("Fuel amount must be positive");
-        fuelLevel += amount;
-    }
-    
-    @Override
-    public double getFuelLevel() { return fuelLevel; }
-    
-    @Override
-    public double consumeFuel(double distance) throws InsufficientFuelException {
-        if (hasSail()) return 0;
-        
-        double fuelNeeded = distance / calculateFuelEfficiency();
-        if (fuelLevel < fuelNeeded) {
-            throw new InsufficientFuelException("Not enough fuel");
-        }
-        fuelLevel -= fuelNeeded;
-        return fuelNeeded;
-    }
-    
-    @Override
-    public void loadCargo(double weight) throws OverloadException, InvalidOperationException {
-        if (weight <= 0) throw new InvalidOperationException("Cargo weight must be positive");
-        if (currentCargo + weight > CARGO_CAPACITY) {
-            throw new OverloadException("Cannot load " + weight + " kg. Capacity exceeded");
-        }
-        currentCargo += weight;
-    }
-    
-    @Override
-    public void unloadCargo(double weight) throws InvalidOperationException {
-        if (weight <= 0) throw new InvalidOperationException("Cargo weight must be positive");
-        if (weight > currentCargo) {
-            throw new InvalidOperationException("Cannot unload more cargo than currently loaded");
-        }
-        currentCargo -= weight;
-    }
-    
-    @Override
-    public double getCargoCapacity() { return CARGO_CAPACITY; }
-    
-    @Override
-    public double getCurrentCargo() { return currentCargo; }
-    
-    @Override
-    public void scheduleMaintenance() { maintenanceNeeded = true; }
-    
-    @Override
-    public boolean needsMaintenance() {
-    return mileageSinceMaintenance > 10000 || maintenanceNeeded;
-}
-
-    
-    @Override
-    public void performMaintenance() {
-    maintenanceNeeded = false;     // or your existing logic
-    resetMileageSinceMaintenance(); // reset only mileageSinceMaintenance
-}
-    
-    @Override
-    public String toString() {
-        return "CargoShip," + super.toString() + "," + currentCargo + "," + fuelLevel + "," + maintenanceNeeded;
-    }
+package transportation.vehicles;
+import transportation.exceptions.*;
+import transportation.abstractclasses.*;
+import transportation.interfaces.*;
+import transportation.events.*;
+import transportation.utility.OperationStatus;
+
+public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainable, FuelConsumable {
+    private double currentCargo, fuelLevel;
+    private boolean maintenanceNeeded;
+    private static final double CARGO_CAPACITY = 50000.0;
+    
+    public CargoShip(String id, String model, double maxSpeed, boolean hasSail) throws InvalidOperationException {
+        super(id, model, maxSpeed, hasSail);
+        this.currentCargo = 0;
+        this.fuelLevel = hasSail ? 0 : 100;
+        this.maintenanceNeeded = false;
+    }
+    
+    @Override
+    public void move(double distance) throws Exception {
+        switch (tryMove(distance)) {
+            case OperationStatus.INVALID_ARGUMENT: throw new InvalidOperationException("Distance cannot be negative", false);
+            case OperationStatus.INSUFFICIENT_FUEL: throw new InsufficientFuelException("Not enough fuel for the journey", false);
+        }
+    }
+
+    @Override
+    public int tryMove(double distance) {
+        if (distance < 0) return OperationStatus.INVALID_ARGUMENT;
+        
+        if (!hasSail()) {
+            double fuelNeeded = fuelRequired(distance);
+            if (fuelLevel < fuelNeeded) {
+                return OperationStatus.INSUFFICIENT_FUEL;
+            }
+            fuelLevel -= fuelNeeded;
+            notifyObserver(Change.FUEL);
+        }
+        
+        addMileage(distance);
+        EventSinks.get().publish(FleetEvent.Type.VEHICLE_MOVED, this, distance, null);
+        return OperationStatus.OK;
+    }
+    
+    @Override
+    public double calculateFuelEfficiency() { 
+        return hasSail() ? 0 : 4.0; 
+    }
+    
+    @Override
+    public void refuel(double amount) throws InvalidOperationException {
+        switch (tryRefuel(amount)) {
+            case OperationStatus.INVALID_OPERATION: throw new InvalidOperationException("Sail-powered ships don't need fuel", false);
+            case OperationStatus.INVALID_ARGUMENT: throw new InvalidOperationException("Fuel amount must be positive", false);
+        }
+    }
+
+    @Override
+    public int tryRefuel(double amount) {
+        if (hasSail()) return OperationStatus.INVALID_OPERATION;
+        if (amount <= 0) return OperationStatus.INVALID_ARGUMENT;
+        fuelLevel += amount;
+        notifyObserver(Change.FUEL);
+        return OperationStatus.OK;
+    }
+    
+    @Override
+    public double getFuelLevel() { return fuelLevel; }
+
+    @Override
+    public double fuelRequired(double distance) {
+        return hasSail() ? 0 : distance / getFuelEfficiency();
+    }
+    
+    @Override
+    public double consumeFuel(double distance) throws InsufficientFuelException {
+        double fuelNeeded = fuelRequired(distance);
+        if (tryConsumeFuel(distance) == OperationStatus.INSUFFICIENT_FUEL) throw new InsufficientFuelException("Not enough fuel", false);
+        return fuelNeeded;
+    }
+
+    @Override
+    public int tryConsumeFuel(double distance) {
+        if (hasSail()) return OperationStatus.OK;
+        
+        double fuelNeeded = fuelRequired(distance);
+        if (fuelLevel < fuelNeeded) {
+            return OperationStatus.INSUFFICIENT_FUEL;
+        }
+        fuelLevel -= fuelNeeded;
+        notifyObserver(Change.FUEL);
+        return OperationStatus.OK;
+    }
+    
+    @Override
+    public void loadCargo(double weight) throws OverloadException, InvalidOperationException {
+        switch (tryLoadCargo(weight)) {
+            case OperationStatus.INVALID_ARGUMENT: throw new InvalidOperationException("Cargo weight must be positive", false);
+            case OperationStatus.OVERLOAD: throw new OverloadException("Cannot load " + weight + " kg. Capacity exceeded", false);
+        }
+    }
+
+    @Override
+    public int tryLoadCargo(double weight) {
+        if (weight <= 0) return OperationStatus.INVALID_ARGUMENT;
+        if (currentCargo + weight > CARGO_CAPACITY) {
+            return OperationStatus.OVERLOAD;
+        }
+        currentCargo += weight;
+        notifyObserver(Change.CARGO);
+        return OperationStatus.OK;
+    }
+    
+    @Override
+    public void unloadCargo(double weight) throws InvalidOperationException {
+        switch (tryUnloadCargo(weight)) {
+            case OperationStatus.INVALID_ARGUMENT: throw new InvalidOperationException("Cargo weight must be positive", false);
+            case OperationStatus.INVALID_OPERATION: throw new InvalidOperationException("Cannot unload more cargo than currently loaded", false);
+        }
+    }
+
+    @Override
+    public int tryUnloadCargo(double weight) {
+        if (weight <= 0) return OperationStatus.INVALID_ARGUMENT;
+        if (weight > currentCargo) {
+            return OperationStatus.INVALID_OPERATION;
+        }
+        currentCargo -= weight;
+        notifyObserver(Change.CARGO);
+        return OperationStatus.OK;
+    }
+    
+    @Override
+    public double getCargoCapacity() { return CARGO_CAPACITY; }
+    
+    @Override
+    public double getCurrentCargo() { return currentCargo; }
+    
+    @Override
+    public void scheduleMaintenance() {
+        maintenanceNeeded = true;
+        notifyObserver(Change.MAINTENANCE);
+    }
+    
+    @Override
+    public boolean needsMaintenance() {
+    return mileageSinceMaintenance > 10000 || maintenanceNeeded;
+}
+
+    
+    @Override
+    public boolean isMaintenanceScheduled() { return maintenanceNeeded; }
+
+    @Override
+    public void performMaintenance() {
+    maintenanceNeeded = false;     // or your existing logic
+    resetMileageSinceMaintenance(); // reset only mileageSinceMaintenance
+    notifyObserver(Change.MAINTENANCE);
+}
+    
+    @Override
+    public String describeMove(double distance) {
+        return "CargoShip " + getId() + " sailing with cargo for " + distance + " km";
+    }
+
+    @Override
+    public String toString() {
+        return "CargoShip," + super.toString() + "," + currentCargo + "," + fuelLevel + "," + maintenanceNeeded;
+    }
 }
\ No newline at end of file
@@ -1,95 +1,155 @@
-package transportation.vehicles;
-
-import transportation.abstractclasses.*;
-import transportation.exceptions.*;
-import transportation.interfaces.*;
-
-public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier, Maintainable {
-    private double fuelLevel, currentCargo;
-    private boolean maintenanceNeeded;
-    private static final double CARGO_CAPACITY = 5000.0;
-
-    public Truck(String id, String model, double maxSpeed, int numWheels) throws InvalidOperationException {
-        super(id, model, maxSpeed, numWheels);
-        this.fuelLevel = 0;
-        this.currentCargo = 0;
-        this.maintenanceNeeded = false;
-    }
-
-    @Override
-    public void move(double distance) throws Exception {
-        if (distance < 0) throw new InvalidOperationException("Distance cannot be negative");
-
-        double efficiency = calculateFuelEfficiency();
-        if (currentCargo > CARGO_CAPACITY * 0.5) efficiency *= 0.9;
-
-        double fuelNeeded = distance / efficiency;
-        if (fuelLevel < fuelNeeded) throw new InsufficientFuelException("Not enough fuel for the journey");
-
-        fuelLevel -= fuelNeeded;
-        addMileage(distance);
-        System.out.println("Truck " + getId() + " hauling cargo for " + distance + " km");
-    }
-
-    @Override
-    public double calculateFuelEfficiency() { return 8.0; }
-
-    @Override
-    public void refuel(double amount) throws InvalidOperationException {
-        if (amount <= 0) throw new InvalidOperationException("Fuel amount must be positive");
-        fuelLevel += amount;
-    }
-
-    @Override
-    public double getFuelLevel() { return fuelLevel; }
-
-    @Override
-    public double consumeFuel(double distance) throws InsufficientFuelException {
-        double efficiency = calculateFuelEfficiency();
-        if (currentCargo > CARGO_CAPACITY * 0.5) efficiency *= 0.9;
-
-        double fuelNeeded = distance / efficiency;
-        if (fuelLevel < fuelNeeded) throw new InsufficientFuelException("Not enough fuel");
-        fuelLevel -= fuelNeeded;
-        return fuelNeeded;
-    }
-
-    @Override
-    public void loadCargo(double weight) throws OverloadException, InvalidOperationException {
-        if (weight <= 0) throw new InvalidOperationException("Cargo weight must be positive");
-        if (currentCargo + weight > CARGO_CAPACITY) throw new OverloadException("Cannot load " + weight + " kg. Capacity exceeded");
-        currentCargo += weight;
-    }
-
-    @Override
-    public void unloadCargo(double weight) throws InvalidOperationException {
-        if (weight <= 0) throw new InvalidOperationException("Cargo weight must be positive");
-        if (weight > currentCargo) throw new InvalidOperationException("Cannot unload more cargo than currently loaded");
-        currentCargo -= weight;
-    }
-
-    @Override
-    public double getCargoCapacity() { return CARGO_CAPACITY; }
-
-    @Override
-    public double getCurrentCargo() { return currentCargo; }
-
-    @Override
-    public void scheduleMaintenance() { maintenanceNeeded = true; }
-
-    @Override
-    public boolean needsMaintenance() {
-        return mileageSinceMaintenance > 10000 || maintenanceNeeded;
-    }
-
-    @Override
-    public void performMaintenance() {
-        maintenanceNeeded = false;
-        resetMileageSinceMaintenance();
-    }
-
-    @Override
-    public String toString() {
-        return "Truck," + super.toString() + "," + fuelLevel + "," + currentCargo + "," + maintenanceNeeded;
-    }
-}
+package transportation.vehicles;
+
+import transportation.abstractclasses.*;
+import transportation.exceptions.*;
+import transportation.interfaces.*;
+import transportation.events.*;
+import transportation.utility.OperationStatus;
+
+public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier, Maintainable {
+    private double fuelLevel, currentCargo;
+    private boolean maintenanceNeeded;
+    private static final double CARGO_CAPACITY = 5000.0;
+
+    public Truck(String id, String model, double maxSpeed, int numWheels) throws InvalidOperationException {
+        super(id, model, maxSpeed, numWheels);
+        this.fuelLevel = 0;
+        this.currentCargo = 0;
+        this.maintenanceNeeded = false;
+    }
+
+    @Override
+    public void move(double distance) throws Exception {
+        switch (tryMove(distance)) {
+            case OperationStatus.INVALID_ARGUMENT: throw new InvalidOperationException("Distance cannot be negative", false);
+            case OperationStatus.INSUFFICIENT_FUEL: throw new InsufficientFuelException("Not enough fuel for the journey", false);
+        }
+    }
+
+    @Override
+    public int tryMove(double distance) {
+        if (distance < 0) return OperationStatus.INVALID_ARGUMENT;
+
+        double fuelNeeded = fuelRequired(distance);
+        if (fuelLevel < fuelNeeded) return OperationStatus.INSUFFICIENT_FUEL;
+
+        fuelLevel -= fuelNeeded;
+        notifyObserver(Change.FUEL);
+        addMileage(distance);
+        EventSinks.get().publish(FleetEvent.Type.VEHICLE_MOVED, this, distance, null);
+        return OperationStatus.OK;
+    }
+
+    @Override
+    public double calculateFuelEfficiency() { return 8.0; }
+
+    @Override
+    public void refuel(double amount) throws InvalidOperationException {
+        if (tryRefuel(amount) == OperationStatus.INVALID_ARGUMENT) throw new InvalidOperationException("Fuel amount must be positive", false);
+    }
+
+    @Override
+    public int tryRefuel(double amount) {
+        if (amount <= 0) return OperationStatus.INVALID_ARGUMENT;
+        fuelLevel += amount;
+        notifyObserver(Change.FUEL);
+        return OperationStatus.OK;
+    }
+
+    @Override
+    public double getFuelLevel() { return fuelLevel; }
+
+    @Override
+    public double fuelRequired(double distance) {
+        double efficiency = getFuelEfficiency();
+        if (currentCargo > CARGO_CAPACITY * 0.5) efficiency *= 0.9;
+        return distance / efficiency;
+    }
+
+    @Override
+    public double consumeFuel(double distance) throws InsufficientFuelException {
+        double fuelNeeded = fuelRequired(distance);
+        if (tryConsumeFuel(distance) == OperationStatus.INSUFFICIENT_FUEL) throw new InsufficientFuelException("Not enough fuel", false);
+        return fuelNeeded;
+    }
+
+    @Override
+    public int tryConsumeFuel(double distance) {
+        double fuelNeeded = fuelRequired(distance);
+        if (fuelLevel < fuelNeeded) return OperationStatus.INSUFFICIENT_FUEL;
+        fuelLevel -= fuelNeeded;
+        notifyObserver(Change.FUEL);
+        return OperationStatus.OK;
+    }
+
+    @Override
+    public void loadCargo(double weight) throws OverloadException, InvalidOperationException {
+        switch (tryLoadCargo(weight)) {
+            case OperationStatus.INVALID_ARGUMENT: throw new InvalidOperationException("Cargo weight must be positive", false);
+            case OperationStatus.OVERLOAD: throw new OverloadException("Cannot load " + weight + " kg. Capacity exceeded", false);
+        }
+    }
+
+    @Override
+    public int tryLoadCargo(double weight) {
+        if (weight <= 0) return OperationStatus.INVALID_ARGUMENT;
+        if (currentCargo + weight > CARGO_CAPACITY) return OperationStatus.OVERLOAD;
+        currentCargo += weight;
+        notifyObserver(Change.CARGO);
+        return OperationStatus.OK;
+    }
+
+    @Override
+    public void unloadCargo(double weight) throws InvalidOperationException {
+        switch (tryUnloadCargo(weight)) {
+            case OperationStatus.INVALID_ARGUMENT: throw new InvalidOperationException("Cargo weight must be positive", false);
+            case OperationStatus.INVALID_OPERATION: throw new InvalidOperationException("Cannot unload more cargo than currently loaded", false);
+        }
+    }
+
+    @Override
+    public int tryUnloadCargo(double weight) {
+        if (weight <= 0) return OperationStatus.INVALID_ARGUMENT;
+        if (weight > currentCargo) return OperationStatus.INVALID_OPERATION;
+        currentCargo -= weight;
+        notifyObserver(Change.CARGO);
+        return OperationStatus.OK;
+    }
+
+    @Override
+    public double getCargoCapacity() { return CARGO_CAPACITY; }
+
+    @Override
+    public double getCurrentCargo() { return currentCargo; }
+
+    @Override
+    public void scheduleMaintenance() {
+        maintenanceNeeded = true;
+        notifyObserver(Change.MAINTENANCE);
+    }
+
+    @Override
+    public boolean needsMaintenance() {
+        return mileageSinceMaintenance > 10000 || maintenanceNeeded;
+    }
+
+    @Override
+    public boolean isMaintenanceScheduled() { return maintenanceNeeded; }
+
+    @Override
+    public void performMaintenance() {
+        maintenanceNeeded = false;
+        resetMileageSinceMaintenance();
+        notifyObserver(Change.MAINTENANCE);
+    }
+
+    @Override
+    public String describeMove(double distance) {
+        return "Truck " + getId() + " hauling cargo for " + distance + " km";
+    }
+
+    @Override
+    public String toString() {
+        return "Truck," + super.toString() + "," + fuelLevel + "," + currentCargo + "," + maintenanceNeeded;
+    }
+}